@@ -2,6 +2,8 @@ package ru.practicum.comment.controller;
 
 import interaction.model.comment.in.CommentPublicParam;
 import interaction.model.comment.output.CommentFullDto;
+import interaction.model.pagination.KeysetCursor;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,10 +24,17 @@ public class PublicCommentsController {
     @ResponseStatus(HttpStatus.OK)
     public List<CommentFullDto> getCommentsByEventId(@PathVariable Long eventId,
                                                      @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                                     @RequestParam(defaultValue = "10") @Min(0) Integer size) {
+                                                     @RequestParam(defaultValue = "10") @Min(0) Integer size,
+                                                     @RequestParam(required = false) String cursor,
+                                                     HttpServletResponse response) {
         log.info("Get comments by public user for event with id {}.", eventId);
-        CommentPublicParam param = new CommentPublicParam(eventId, from, size);
-        return commentService.getCommentsByEventId(param);
+        CommentPublicParam param = new CommentPublicParam(eventId, from, size, KeysetCursor.decode(cursor));
+        List<CommentFullDto> comments = commentService.getCommentsByEventId(param);
+        if (!comments.isEmpty() && comments.size() == size) {
+            response.setHeader(KeysetCursor.NEXT_CURSOR_HEADER, KeysetCursor.ofLast(comments,
+                    CommentFullDto::getCreatedOn, CommentFullDto::getId, false).encode());
+        }
+        return comments;
     }
 }
 
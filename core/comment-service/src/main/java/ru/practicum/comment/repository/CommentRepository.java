@@ -2,6 +2,8 @@ package ru.practicum.comment.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import interaction.model.event.State;
 import ru.practicum.comment.model.Comment;
 
@@ -15,6 +17,16 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByEventIdAndState(Long eventId, State state);
 
+    @Query("SELECT c FROM Comment c " +
+            "WHERE c.eventId = :eventId AND c.state = :state " +
+            "AND (c.createdOn > :createdOn OR (c.createdOn = :createdOn AND c.id > :id)) " +
+            "ORDER BY c.createdOn, c.id")
+    List<Comment> findByEventIdAndStateAfter(@Param("eventId") Long eventId,
+                                             @Param("state") State state,
+                                             @Param("createdOn") LocalDateTime createdOn,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
     List<Comment> findByEventIdAndAuthorIdAndState(Long eventId, Long authorId, State state);
 
     List<Comment> findByAuthorIdAndState(Long eventId, State status, Pageable pageable);
@@ -2,8 +2,8 @@
 package ru.practicum.comment.service;
 
 import feign.FeignException;
+import interaction.client.CachingUserClient;
 import interaction.client.EventFeignClient;
-import interaction.client.UserFeignClient;
 import interaction.exceptions.ConflictException;
 import interaction.exceptions.ForbiddenException;
 import interaction.exceptions.NotFoundException;
@@ -15,6 +15,8 @@ import interaction.model.user.output.UserShortDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import interaction.model.comment.output.CommentFullDto;
@@ -36,7 +38,7 @@ import static java.util.function.UnaryOperator.identity;
 public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
-    private final UserFeignClient userClient;
+    private final CachingUserClient userClient;
     private final EventFeignClient eventClient;
 
     public CommentShortDto  create(NewCommentDto newCommentDto, Long userId, Long eventId) {
@@ -185,12 +187,16 @@ public class CommentServiceImpl implements CommentService {
         Integer size = param.getSize();
         List<Comment> comments;
 
-        if (size == 0) {
+        if (param.getCursor() != null) {
+            Pageable pageable = size == 0 ? Pageable.unpaged() : PageRequest.of(0, size);
+            comments = commentRepository.findByEventIdAndStateAfter(param.getEventId(), State.PUBLISHED,
+                    param.getCursor().getTimestamp(), param.getCursor().getId(), pageable);
+        } else if (size == 0) {
             comments = commentRepository.findByEventIdAndState(param.getEventId(), State.PUBLISHED).stream()
                     .skip(from)
                     .toList();
         } else if (from < size && size > 0) {
-            PageRequest pageRequest = PageRequest.of(from / size, size);
+            PageRequest pageRequest = PageRequest.of(from / size, size, Sort.by("createdOn", "id"));
             comments = commentRepository.findByEventIdAndState(param.getEventId(), State.PUBLISHED, pageRequest);
         } else {
             return List.of();
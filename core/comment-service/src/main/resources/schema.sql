@@ -8,4 +8,6 @@ CREATE TABLE IF NOT EXISTS comments
     published_on    TIMESTAMP,
     modified_on     TIMESTAMP,
     state           VARCHAR DEFAULT 'PENDING'       NOT NULL CHECK (state IN ('PENDING', 'PUBLISHED', 'CANCELED'))
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS comments_event_state_created_idx ON comments (event_id, state, created_on, id);
@@ -2,12 +2,18 @@ package ru.practicum;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = {"ru.practicum.client", "interaction.client"})
 @EnableDiscoveryClient
+@EnableScheduling
+// Кэш снаружи транзакции: записи сбрасываются после коммита, а не до него
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
 public class EventService {
     public static void main(String[] args) {
         SpringApplication.run(EventService.class, args);
@@ -2,10 +2,12 @@ package ru.practicum.category.controller;
 
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import interaction.model.category.output.CategoryDto;
 import ru.practicum.category.service.CategoryService;
+import ru.practicum.common.version.Content;
+import ru.practicum.common.version.ContentVersions;
 
 import java.util.List;
 
@@ -14,17 +16,23 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoryPublicController {
     private final CategoryService service;
+    private final ContentVersions contentVersions;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
     public List<CategoryDto> getCategories(@RequestParam(required = false, defaultValue = "0") @Min(0) int from,
-                                           @RequestParam(required = false, defaultValue = "10") @Min(0) int size) {
+                                           @RequestParam(required = false, defaultValue = "10") @Min(0) int size,
+                                           WebRequest webRequest) {
+        if (webRequest.checkNotModified(contentVersions.etag(Content.CATEGORIES))) {
+            return null;
+        }
         return service.findAll(from, size);
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public CategoryDto getCategoryById(@PathVariable("id") Long id) {
+    public CategoryDto getCategoryById(@PathVariable("id") Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(contentVersions.etag(Content.CATEGORIES))) {
+            return null;
+        }
         return service.findById(id);
     }
 }
\ No newline at end of file
@@ -2,15 +2,20 @@ package ru.practicum.category.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import interaction.model.category.in.NewCategoryDto;
 import interaction.model.category.output.CategoryDto;
 import ru.practicum.category.mapper.CategoryMapper;
 import ru.practicum.category.model.Category;
 import ru.practicum.category.storage.CategoryRepository;
+import ru.practicum.common.CacheNames;
+import ru.practicum.common.version.Content;
+import ru.practicum.common.version.ContentVersions;
 import ru.practicum.events.storage.EventRepository;
 import interaction.exceptions.ConflictException;
 import interaction.exceptions.DuplicateException;
@@ -25,14 +30,18 @@ public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper mapper;
     private final EventRepository eventRepository;
+    private final ContentVersions contentVersions;
 
+    @Transactional
     @Override
     public CategoryDto add(NewCategoryDto newCategory) {
         checkCategoryNameExists(newCategory.getName());
         Category category = categoryRepository.save(mapper.toCategory(newCategory));
+        contentVersions.changed(Content.CATEGORIES);
         return mapper.toCategoryDto(category);
     }
 
+    @Transactional
     @Override
     public void delete(Long id) {
         Category category = getCategoryOrThrow(id);
@@ -42,9 +51,14 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.deleteById(id);
+        contentVersions.changed(Content.CATEGORIES);
     }
 
+    @Transactional
     @Override
+    // Название категории входит в события закэшированных подборок
+    @CacheEvict(cacheNames = {CacheNames.COMPILATIONS, CacheNames.COMPILATION},
+            allEntries = true)
     public CategoryDto update(Long id, NewCategoryDto newCategory) {
         Category existingCategory = getCategoryOrThrow(id);
 
@@ -55,6 +69,7 @@ public class CategoryServiceImpl implements CategoryService {
         existingCategory.setName(newCategory.getName());
 
         Category updatedCategory = categoryRepository.save(existingCategory);
+        contentVersions.changed(Content.CATEGORIES);
         log.info("Category was updated with id={}, old name='{}', new name='{}'",
                 id, existingCategory.getName(), newCategory.getName());
         return mapper.toCategoryDto(updatedCategory);
@@ -0,0 +1,16 @@
+package ru.practicum.common;
+
+/**
+ * Имена кэшей event-service, включённых через @EnableCaching в {@link ru.practicum.EventService}.
+ */
+public final class CacheNames {
+    /**
+     * Кэши готовых CompilationDto: страницы подборок по (pinned, from, size) и подборки по id.
+     * Сбрасываются целиком при изменении подборок, событий и категорий.
+     */
+    public static final String COMPILATIONS = "compilations";
+    public static final String COMPILATION = "compilation";
+
+    private CacheNames() {
+    }
+}
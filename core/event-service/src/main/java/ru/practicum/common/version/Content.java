@@ -0,0 +1,17 @@
+package ru.practicum.common.version;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Виды данных, у которых есть счётчик изменений в content_versions.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Content {
+    EVENTS("events"),
+    CATEGORIES("categories"),
+    COMPILATIONS("compilations");
+
+    private final String key;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.common.version;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "content_versions")
+public class ContentVersion {
+    @Id
+    private String name;
+    @Column(nullable = false)
+    private Long version;
+}
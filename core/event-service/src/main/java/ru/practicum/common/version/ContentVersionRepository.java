@@ -0,0 +1,12 @@
+package ru.practicum.common.version;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ContentVersionRepository extends JpaRepository<ContentVersion, String> {
+    @Modifying
+    @Query(value = "UPDATE content_versions SET version = version + 1 WHERE name = :name", nativeQuery = true)
+    void increment(@Param("name") String name);
+}
@@ -0,0 +1,54 @@
+package ru.practicum.common.version;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Счётчики изменений для ETag публичных ответов. Счётчик увеличивается в транзакции записи,
+ * поэтому ETag меняется вместе с данными на всех экземплярах сервиса. Проверка If-None-Match
+ * стоит одного запроса к content_versions и не требует построения DTO.
+ */
+@Component
+public class ContentVersions {
+    private final ContentVersionRepository repository;
+    private final long statisticsWindowMillis;
+
+    public ContentVersions(ContentVersionRepository repository,
+                           @Value("${event-service.etag.statistics-window:30s}") Duration statisticsWindow) {
+        this.repository = repository;
+        this.statisticsWindowMillis = statisticsWindow.toMillis();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changed(Content content) {
+        repository.increment(content.getKey());
+    }
+
+    public String etag(Content... contents) {
+        return "W/\"" + versions(contents) + "\"";
+    }
+
+    /**
+     * ETag ответов с просмотрами и подтверждёнными заявками. Они меняются без записи в event-service,
+     * поэтому ETag дополнительно сменяется раз в statistics-window.
+     */
+    public String etagWithStatistics(Content... contents) {
+        return "W/\"" + versions(contents) + "-" + System.currentTimeMillis() / statisticsWindowMillis + "\"";
+    }
+
+    private String versions(Content... contents) {
+        Map<String, Long> versions = repository.findAllById(Arrays.stream(contents).map(Content::getKey).toList())
+                .stream()
+                .collect(Collectors.toMap(ContentVersion::getName, ContentVersion::getVersion));
+        return Arrays.stream(contents)
+                .map(content -> content.getKey() + "." + versions.getOrDefault(content.getKey(), 0L))
+                .collect(Collectors.joining("-"));
+    }
+}
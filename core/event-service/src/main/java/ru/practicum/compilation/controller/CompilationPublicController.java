@@ -5,6 +5,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.common.version.Content;
+import ru.practicum.common.version.ContentVersions;
 import ru.practicum.compilation.dto.in.CompilationPublicParam;
 import ru.practicum.compilation.dto.output.CompilationDto;
 import ru.practicum.compilation.service.CompilationServiceImpl;
@@ -18,18 +21,31 @@ import java.util.List;
 @Validated
 public class CompilationPublicController {
     private final CompilationServiceImpl compilationService;
+    private final ContentVersions contentVersions;
 
     @GetMapping
     public List<CompilationDto> getCompilations(
             @RequestParam(required = false) Boolean pinned,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(defaultValue = "10") @Min(0) Integer size) {
+            @RequestParam(defaultValue = "10") @Min(0) Integer size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(etag())) {
+            return null;
+        }
         CompilationPublicParam param = new CompilationPublicParam(pinned, from, size);
         return compilationService.findBy(param);
     }
 
     @GetMapping("/{compId}")
-    public CompilationDto getCompilationById(@PathVariable Long compId) {
+    public CompilationDto getCompilationById(@PathVariable Long compId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(etag())) {
+            return null;
+        }
         return compilationService.findById(compId);
     }
+
+    // Подборка содержит события с категориями, просмотрами и подтверждёнными заявками
+    private String etag() {
+        return contentVersions.etagWithStatistics(Content.COMPILATIONS, Content.EVENTS, Content.CATEGORIES);
+    }
 }
@@ -1,5 +1,6 @@
 package ru.practicum.compilation.mapper;
 
+import interaction.model.event.output.EventFullDto;
 import org.mapstruct.*;
 import ru.practicum.compilation.dto.in.NewCompilationDto;
 import ru.practicum.compilation.dto.in.UpdateCompilationRequest;
@@ -12,8 +13,8 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface CompilationMapper {
 
-    @Mapping(target = "events", source = "compilation.events")
-    CompilationDto toDto(Compilation compilation);
+    @Mapping(target = "events", source = "events")
+    CompilationDto toDto(Compilation compilation, List<EventFullDto> events);
 
     @Mapping(target = "events", ignore = true) // Игнорируем поле events при маппинге
     Compilation toEntity(NewCompilationDto newCompilationDto, @Context List<Event> events);
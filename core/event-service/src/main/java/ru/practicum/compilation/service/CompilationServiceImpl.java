@@ -2,32 +2,48 @@ package ru.practicum.compilation.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.compilation.dto.in.CompilationPublicParam;
 import ru.practicum.compilation.dto.in.NewCompilationDto;
 import ru.practicum.compilation.dto.in.UpdateCompilationRequest;
 import ru.practicum.compilation.dto.output.CompilationDto;
 import ru.practicum.compilation.mapper.CompilationMapper;
 import ru.practicum.compilation.model.Compilation;
+import ru.practicum.common.CacheNames;
+import ru.practicum.common.version.Content;
+import ru.practicum.common.version.ContentVersions;
 import ru.practicum.compilation.storage.CompilationRepository;
 import ru.practicum.events.model.Event;
+import ru.practicum.events.service.EventEnricher;
 import ru.practicum.events.storage.EventRepository;
 import interaction.exceptions.NotFoundException;
+import interaction.model.event.output.EventFullDto;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.function.UnaryOperator.identity;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CompilationServiceImpl implements CompilationService {
-
     private final CompilationRepository compilationRepository;
     private final CompilationMapper compilationMapper;
     private final EventRepository eventRepository;
+    private final EventEnricher eventEnricher;
+    private final ContentVersions contentVersions;
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.COMPILATIONS, key = "{#param.pinned, #param.from, #param.size}")
     public List<CompilationDto> findBy(CompilationPublicParam param) {
         List<Compilation> compilations;
         if (param.getSize() == 0) {
@@ -55,18 +71,20 @@ public class CompilationServiceImpl implements CompilationService {
         }
 
 
-        return compilations.stream()
-                .map(compilationMapper::toDto)
-                .toList();
+        return toDtos(compilations);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.COMPILATION, key = "#compId")
     public CompilationDto findById(Long compId) {
 
         Compilation compilation = findCompById(compId);
 
-        return compilationMapper.toDto(compilation);
+        return toDtos(List.of(compilation)).getFirst();
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheNames.COMPILATIONS, allEntries = true)
     public CompilationDto add(NewCompilationDto dto) {
         List<Event> events = List.of();
         if (dto.getEvents() != null) {
@@ -75,18 +93,30 @@ public class CompilationServiceImpl implements CompilationService {
 
         Compilation compilationToSave = compilationMapper.toEntity(dto, events);
         Compilation savedCompilation = compilationRepository.save(compilationToSave);
+        contentVersions.changed(Content.COMPILATIONS);
 
         log.info("Compilation with id: {} was created", savedCompilation.getId());
-        return compilationMapper.toDto(savedCompilation);
+        return toDtos(List.of(savedCompilation)).getFirst();
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.COMPILATIONS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.COMPILATION, key = "#compId")
+    })
+    @Transactional
     public void delete(Long compId) {
         findCompById(compId);
 
         compilationRepository.deleteById(compId);
+        contentVersions.changed(Content.COMPILATIONS);
         log.info("Deleted compilation with id: {}", compId);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.COMPILATIONS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.COMPILATION, key = "#compId")
+    })
+    @Transactional
     public CompilationDto update(Long compId, UpdateCompilationRequest updateCompilationRequest) {
         Compilation findedCompilation = findCompById(compId);
 
@@ -107,9 +137,37 @@ public class CompilationServiceImpl implements CompilationService {
             compilationToUpdate.setTitle(title);
         }
         Compilation updatedCompilation = compilationRepository.save(compilationToUpdate);
+        contentVersions.changed(Content.COMPILATIONS);
 
         log.info("Compilation with id: {} was updated", updatedCompilation.getId());
-        return compilationMapper.toDto(updatedCompilation);
+        return toDtos(List.of(updatedCompilation)).getFirst();
+    }
+
+    /**
+     * События всех подборок загружаются одним запросом и дополняются данными других сервисов
+     * одним пакетом, поэтому число запросов не зависит от размера страницы.
+     */
+    private List<CompilationDto> toDtos(List<Compilation> compilations) {
+        if (compilations.isEmpty()) {
+            return List.of();
+        }
+        compilationRepository.findAllWithEventsByIdIn(compilations.stream()
+                .map(Compilation::getId)
+                .toList());
+
+        // Одно событие может входить в несколько подборок
+        List<Event> events = List.copyOf(compilations.stream()
+                .flatMap(compilation -> compilation.getEvents().stream())
+                .collect(Collectors.toMap(Event::getId, identity(), (first, second) -> first))
+                .values());
+        Map<Long, EventFullDto> eventDtos = eventEnricher.toFullDtos(events).stream()
+                .collect(Collectors.toMap(EventFullDto::getId, identity()));
+
+        return compilations.stream()
+                .map(compilation -> compilationMapper.toDto(compilation, compilation.getEvents().stream()
+                        .map(event -> eventDtos.get(event.getId()))
+                        .toList()))
+                .toList();
     }
 
     private Compilation findCompById(Long compId) {
@@ -3,8 +3,11 @@ package ru.practicum.compilation.storage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.compilation.model.Compilation;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
@@ -12,4 +15,16 @@ public interface CompilationRepository extends JpaRepository<Compilation, Long>
     Page<Compilation> findByPinned(Boolean pinned, Pageable pageable);
 
     List<Compilation> findByPinned(Boolean pinned);
+
+    /**
+     * Загружает события подборок вместе с категориями и локациями одним запросом.
+     * Уже загруженные подборки получают инициализированную коллекцию events.
+     */
+    @Query("SELECT DISTINCT c " +
+            "FROM Compilation AS c " +
+            "LEFT JOIN FETCH c.events AS e " +
+            "LEFT JOIN FETCH e.category " +
+            "LEFT JOIN FETCH e.location " +
+            "WHERE c.id IN :ids")
+    List<Compilation> findAllWithEventsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -1,5 +1,7 @@
 package ru.practicum.events.controller;
 
+import interaction.model.pagination.KeysetCursor;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
@@ -27,7 +29,9 @@ public class AdminEventsController {
                                          @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeStart,
                                          @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime rangeEnd,
                                          @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-                                         @RequestParam(value = "size", defaultValue = "10") @Min(0) Integer size) {
+                                         @RequestParam(value = "size", defaultValue = "10") @Min(0) Integer size,
+                                         @RequestParam(required = false) String cursor,
+                                         HttpServletResponse response) {
 
         EventAdminParam param = new EventAdminParam();
         param.setUsers(users);
@@ -37,8 +41,14 @@ public class AdminEventsController {
         param.setEnd(rangeEnd);
         param.setFrom(from == null ? 0 : from);
         param.setSize(size == null ? 10 : size);
+        param.setCursor(KeysetCursor.decode(cursor));
 
-        return eventService.findEvents(param);
+        List<EventFullDto> events = eventService.findEvents(param);
+        if (!events.isEmpty() && events.size() == param.getSize()) {
+            response.setHeader(KeysetCursor.NEXT_CURSOR_HEADER, KeysetCursor.ofLast(events,
+                    EventFullDto::getEventDate, EventFullDto::getId, true).encode());
+        }
+        return events;
     }
 
     @PatchMapping("/{eventId}")
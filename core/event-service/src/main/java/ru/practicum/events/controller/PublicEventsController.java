@@ -2,16 +2,20 @@ package ru.practicum.events.controller;
 
 import interaction.model.event.output.EventFullDto;
 import interaction.model.event.output.EventShortDto;
+import interaction.model.pagination.KeysetCursor;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
-import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.client.StatsFeinClient;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.client.StatsHitPublisher;
+import ru.practicum.common.version.Content;
+import ru.practicum.common.version.ContentVersions;
 import ru.practicum.dto.in.StatisticDto;
 import ru.practicum.events.model.EventPublicParam;
 import ru.practicum.events.service.EventService;
@@ -27,23 +31,27 @@ import java.util.Set;
 @Slf4j
 public class PublicEventsController {
 
-    private final StatsFeinClient statsClient;
+    private final StatsHitPublisher hitPublisher;
     private final EventService eventService;
+    private final ContentVersions contentVersions;
 
     @GetMapping("/{eventId}")
-    public EventFullDto getEventById(@PathVariable Long eventId, HttpServletRequest request) {
+    public EventFullDto getEventById(@PathVariable Long eventId, HttpServletRequest request, WebRequest webRequest) {
         StatisticDto statDto = StatisticDto.builder()
                 .app("main-service")
                 .uri(request.getRequestURI())
                 .ip(request.getRemoteAddr())
                 .timestamp(LocalDateTime.now())
                 .build();
-        statsClient.addHit(statDto);
+        hitPublisher.publish(statDto);
+        // Просмотр засчитывается и при 304: клиент всё равно открыл событие
+        if (webRequest.checkNotModified(contentVersions.etagWithStatistics(Content.EVENTS, Content.CATEGORIES))) {
+            return null;
+        }
         return eventService.getEvent(eventId);
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
     public List<EventShortDto> getPublicEvents(
             @RequestParam(required = false) String text,
             @RequestParam(required = false) Set<Long> categories,
@@ -54,20 +62,30 @@ public class PublicEventsController {
             @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(defaultValue = "10") @Positive Integer size,
-            HttpServletRequest request) {
+            @RequestParam(required = false) String cursor,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            WebRequest webRequest) {
 
         EventPublicParam param = new EventPublicParam(
-                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size);
-        List<EventShortDto> eventShorts = eventService.findEvents(param);
+                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size, KeysetCursor.decode(cursor));
 
         log.info("HIT request \"GET /events\" to statsService with params: {}", param);
-        statsClient.addHit(new StatisticDto(
+        hitPublisher.publish(new StatisticDto(
                 "main-service",
                 request.getRequestURI(),
                 request.getRemoteAddr(),
                 LocalDateTime.now())
         );
 
+        if (webRequest.checkNotModified(contentVersions.etagWithStatistics(Content.EVENTS, Content.CATEGORIES))) {
+            return null;
+        }
+        List<EventShortDto> eventShorts = eventService.findEvents(param);
+        if (param.isCursorPageable() && !eventShorts.isEmpty() && eventShorts.size() == size) {
+            response.setHeader(KeysetCursor.NEXT_CURSOR_HEADER, KeysetCursor.ofLast(eventShorts,
+                    EventShortDto::getEventDate, EventShortDto::getId, true).encode());
+        }
         return eventShorts;
     }
 
@@ -10,6 +10,7 @@ import interaction.model.event.in.UpdateEventUserRequest;
 import interaction.model.event.output.EventFullDto;
 import interaction.model.event.output.EventShortDto;
 import ru.practicum.events.model.Event;
+import ru.practicum.events.model.EventShortProjection;
 
 @Mapper(componentModel = "spring")
 public interface EventMapper {
@@ -18,6 +19,12 @@ public interface EventMapper {
     @Mapping(target = "id", source = "event.id")
     EventShortDto toEventShortDto(Event event, UserShortDto userShortDto);
 
+    @Mapping(target = "initiator", source = "userShortDto")
+    @Mapping(target = "id", source = "event.id")
+    @Mapping(target = "category.id", source = "event.categoryId")
+    @Mapping(target = "category.name", source = "event.categoryName")
+    EventShortDto toEventShortDto(EventShortProjection event, UserShortDto userShortDto);
+
     @Mapping(target = "category", source = "category")
     @Mapping(target = "createdOn", expression = "java(java.time.LocalDateTime.now())")
     @Mapping(target = "initiatorId", source = "userId")
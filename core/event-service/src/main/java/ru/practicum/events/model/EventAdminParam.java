@@ -1,6 +1,7 @@
 package ru.practicum.events.model;
 
 import interaction.model.event.State;
+import interaction.model.pagination.KeysetCursor;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,4 +20,5 @@ public class EventAdminParam {
     LocalDateTime end;
     Integer from = 0;
     Integer size = 10;
+    KeysetCursor cursor;
 }
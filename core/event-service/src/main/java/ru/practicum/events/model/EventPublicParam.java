@@ -1,5 +1,6 @@
 package ru.practicum.events.model;
 
+import interaction.model.pagination.KeysetCursor;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -9,6 +10,10 @@ import java.util.Set;
 @Data
 @AllArgsConstructor
 public class EventPublicParam {
+    public static final String SORT_EVENT_DATE = "EVENT_DATE";
+    public static final String SORT_VIEWS = "VIEWS";
+    public static final String SORT_RELEVANCE = "RELEVANCE";
+
     private String text;
     private Set<Long> categories;
     private Boolean paid;
@@ -18,4 +23,12 @@ public class EventPublicParam {
     private String sort;
     private Integer from;
     private Integer size;
-}
\ No newline at end of file
+    private KeysetCursor cursor;
+
+    /**
+     * Курсорная пагинация возможна только в порядке (event_date, id), то есть без сортировки или по дате.
+     */
+    public boolean isCursorPageable() {
+        return sort == null || SORT_EVENT_DATE.equals(sort);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.events.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Колонки события, нужные для EventShortDto. Выбирается проекцией вместо сущности Event,
+ * чтобы списки не тянули description, location и отдельный запрос за категорией.
+ */
+@Data
+@AllArgsConstructor
+public class EventShortProjection {
+    private Long id;
+    private String annotation;
+    private Long categoryId;
+    private String categoryName;
+    private LocalDateTime eventDate;
+    private Long initiatorId;
+    private Boolean paid;
+    private String title;
+    private LocalDateTime publishedOn;
+}
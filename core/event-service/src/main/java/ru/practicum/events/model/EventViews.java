@@ -0,0 +1,30 @@
+package ru.practicum.events.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Локальная копия числа просмотров события из stats-server. Нужна, чтобы поиск мог сортировать
+ * по просмотрам в самом запросе.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "event_views")
+public class EventViews {
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+    @Column(nullable = false)
+    private Long views;
+    @Column(name = "updated_on", nullable = false)
+    private LocalDateTime updatedOn;
+}
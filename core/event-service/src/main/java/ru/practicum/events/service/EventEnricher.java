@@ -0,0 +1,193 @@
+package ru.practicum.events.service;
+
+import interaction.client.CachingUserClient;
+import interaction.client.IdBatches;
+import interaction.client.RequestFeignClient;
+import interaction.model.event.output.EventFullDto;
+import interaction.model.event.output.EventShortDto;
+import interaction.model.request.EventRequestCountDto;
+import interaction.model.user.output.UserShortDto;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.events.mapper.EventMapper;
+import ru.practicum.events.model.Event;
+import ru.practicum.events.model.EventShortProjection;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static java.util.function.UnaryOperator.identity;
+
+/**
+ * Дополняет события данными других сервисов: количеством заявок, просмотрами и инициатором.
+ * Запросы выполняются параллельно на виртуальных потоках, поэтому время ответа определяется
+ * самым медленным из них. Если сервис не ответил за отведённое время, вместо его данных
+ * подставляются значения по умолчанию.
+ */
+@Slf4j
+@Component
+public class EventEnricher {
+    private final EventMapper eventMapper;
+    private final EventViewsCache viewsCache;
+    private final CachingUserClient userClient;
+    private final RequestFeignClient requestClient;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public EventEnricher(EventMapper eventMapper,
+                         EventViewsCache viewsCache,
+                         CachingUserClient userClient,
+                         RequestFeignClient requestClient,
+                         @Value("${event-service.enrichment.timeout:2s}") Duration timeout) {
+        this.eventMapper = eventMapper;
+        this.viewsCache = viewsCache;
+        this.userClient = userClient;
+        this.requestClient = requestClient;
+        this.timeout = timeout;
+    }
+
+    public List<EventFullDto> toFullDtos(List<Event> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        Enrichment enrichment = enrich(events, Event::getId, Event::getInitiatorId, Event::getPublishedOn);
+        List<EventFullDto> eventFullDtos = events.stream()
+                .map(event -> eventMapper.toEventFullDto(event, enrichment.initiator(event.getInitiatorId())))
+                .toList();
+
+        for (EventFullDto eventFullDto : eventFullDtos) {
+            eventFullDto.setConfirmedRequests(enrichment.confirmed(eventFullDto.getId()));
+
+            eventFullDto.setViews(enrichment.views.getOrDefault(eventFullDto.getId(), 0L));
+
+            if (!eventFullDto.getRequestModeration() || eventFullDto.getParticipantLimit() == 0) {
+                eventFullDto.setConfirmedRequests(eventFullDto.getConfirmedRequests() +
+                        enrichment.rejected(eventFullDto.getId()));
+            }
+        }
+        return eventFullDtos;
+    }
+
+    public List<EventShortDto> toShortDtos(List<Event> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        Enrichment enrichment = enrich(events, Event::getId, Event::getInitiatorId, Event::getPublishedOn);
+        return withCounters(events.stream()
+                .map(event -> eventMapper.toEventShortDto(event, enrichment.initiator(event.getInitiatorId())))
+                .toList(), enrichment);
+    }
+
+    public List<EventShortDto> toShortDtosFromProjections(List<EventShortProjection> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        Enrichment enrichment = enrich(events, EventShortProjection::getId, EventShortProjection::getInitiatorId,
+                EventShortProjection::getPublishedOn);
+        return withCounters(events.stream()
+                .map(event -> eventMapper.toEventShortDto(event, enrichment.initiator(event.getInitiatorId())))
+                .toList(), enrichment);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<EventShortDto> withCounters(List<EventShortDto> eventShortDtos, Enrichment enrichment) {
+        for (EventShortDto eventShortDto : eventShortDtos) {
+            eventShortDto.setConfirmedRequests(enrichment.confirmed(eventShortDto.getId()));
+            eventShortDto.setViews(enrichment.views.getOrDefault(eventShortDto.getId(), 0L));
+        }
+        return eventShortDtos;
+    }
+
+    private <T> Enrichment enrich(List<T> events,
+                                  Function<T, Long> id,
+                                  Function<T, Long> initiatorId,
+                                  Function<T, LocalDateTime> publishedOn) {
+        List<Long> ids = events.stream()
+                .map(id)
+                .toList();
+        List<Long> initiatorIds = events.stream()
+                .map(initiatorId)
+                .distinct()
+                .toList();
+        // toMap не допускает null, а у неопубликованных событий нет даты публикации
+        Map<Long, LocalDateTime> published = new HashMap<>();
+        events.forEach(event -> published.put(id.apply(event), publishedOn.apply(event)));
+
+        CompletableFuture<Map<Long, EventRequestCountDto>> requests = call("request counts",
+                () -> getRequestCounts(ids), Map.of());
+        CompletableFuture<Map<Long, Long>> views = call("views",
+                () -> viewsCache.getViews(published), Map.of());
+        CompletableFuture<Map<Long, UserShortDto>> users = call("initiators",
+                () -> getUserMap(initiatorIds), Map.of());
+
+        return new Enrichment(requests.join(), views.join(), users.join());
+    }
+
+    private <T> CompletableFuture<T> call(String name, Supplier<T> supplier, T fallback) {
+        return CompletableFuture.supplyAsync(supplier, executor)
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("Failed to load {} for events: {}", name, e.getMessage());
+                    return fallback;
+                });
+    }
+
+    private Map<Long, EventRequestCountDto> getRequestCounts(List<Long> events) {
+        Map<Long, EventRequestCountDto> counts = new HashMap<>();
+        for (List<Long> batch : IdBatches.partition(events, IdBatches.MAX_IDS_PER_REQUEST)) {
+            requestClient.getRequestCountsByEventIds(batch)
+                    .forEach(dto -> counts.put(dto.getEventId(), dto));
+        }
+        return counts;
+    }
+
+    private Map<Long, UserShortDto> getUserMap(List<Long> initiatorIds) {
+        return userClient.getByIds(initiatorIds).stream()
+                .collect(Collectors.toMap(UserShortDto::getId, identity()));
+    }
+
+    @RequiredArgsConstructor
+    private static class Enrichment {
+        private final Map<Long, EventRequestCountDto> requests;
+        private final Map<Long, Long> views;
+        private final Map<Long, UserShortDto> users;
+
+        long confirmed(Long eventId) {
+            EventRequestCountDto counts = requests.get(eventId);
+            return counts != null ? counts.getConfirmed() : 0L;
+        }
+
+        long rejected(Long eventId) {
+            EventRequestCountDto counts = requests.get(eventId);
+            return counts != null ? counts.getRejected() : 0L;
+        }
+
+        UserShortDto initiator(Long initiatorId) {
+            // Если user-service недоступен, отдаём хотя бы идентификатор инициатора
+            UserShortDto user = users.get(initiatorId);
+            return user != null ? user : new UserShortDto(initiatorId, null);
+        }
+    }
+}
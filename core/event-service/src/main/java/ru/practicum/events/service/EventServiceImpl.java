@@ -1,7 +1,7 @@
 package ru.practicum.events.service;
 
+import interaction.client.CachingUserClient;
 import interaction.client.RequestFeignClient;
-import interaction.client.UserFeignClient;
 import interaction.exceptions.ConflictException;
 import interaction.exceptions.DateException;
 import interaction.exceptions.NoHavePermissionException;
@@ -16,45 +16,61 @@ import interaction.model.event.in.UpdateEventUserRequest;
 import interaction.model.event.output.EventFullDto;
 import interaction.model.event.output.EventShortDto;
 import interaction.model.event.output.SwitchRequestsStatus;
+import interaction.model.pagination.KeysetCursor;
 import interaction.model.request.ParticipationRequestDtoOut;
 import interaction.model.request.Status;
 import interaction.model.user.output.UserDto;
-import interaction.model.user.output.UserShortDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.category.model.Category;
 import ru.practicum.category.storage.CategoryRepository;
+import ru.practicum.common.CacheNames;
+import ru.practicum.common.SingleFlight;
+import ru.practicum.common.version.Content;
+import ru.practicum.common.version.ContentVersions;
 import ru.practicum.events.mapper.EventMapper;
 import ru.practicum.events.model.Event;
 import ru.practicum.events.model.EventAdminParam;
 import ru.practicum.events.model.EventPublicParam;
+import ru.practicum.events.model.EventShortProjection;
 import ru.practicum.events.storage.EventRepository;
+import ru.practicum.events.storage.EventViewsRepository;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static interaction.constants.Methods.copyFields;
-import static java.util.function.UnaryOperator.identity;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EventServiceImpl implements EventService {
     private final EventMapper eventMapper;
-    private final StatClientService statClientService;
-    private final UserFeignClient userClient;
+    private final EventEnricher eventEnricher;
+    private final CachingUserClient userClient;
     private final CategoryRepository categoryRepository;
     private final RequestFeignClient requestClient;
     private final EventRepository eventRepository;
+    private final EventViewsRepository eventViewsRepository;
+    private final ContentVersions contentVersions;
+    private final PublicEventSearch publicEventSearch;
+    // Одновременные одинаковые публичные запросы выполняются один раз, остальные ждут результат
+    private final SingleFlight<Long, EventFullDto> eventLoads = new SingleFlight<>();
+    private final SingleFlight<EventSearchKey, List<EventShortDto>> eventSearches = new SingleFlight<>();
 
     @Transactional
     @Override
+    // Событие может входить в подборки, закэшированные с его прежними данными
+    @CacheEvict(cacheNames = {CacheNames.COMPILATIONS, CacheNames.COMPILATION},
+            allEntries = true)
     public EventFullDto updateEvent(UpdateEventAdminRequest request, Long eventId) {
         Event event = eventRepository.findById(eventId).orElseThrow(() -> new NotFoundException("Event not found"));
+        contentVersions.changed(Content.EVENTS);
         Category category;
         if (request.getCategory() == null) {
             category = event.getCategory();
@@ -76,6 +92,8 @@ public class EventServiceImpl implements EventService {
             }
             event.setState(State.PUBLISHED);
             event.setPublishedOn(LocalDateTime.now());
+            // Событие сразу попадает в выдачу по просмотрам, число просмотров подтянет EventViewsReplicator
+            eventViewsRepository.createIfAbsent(event.getId());
         } else if (request.getStateAction().equals(StateActionForAdmin.REJECT_EVENT)) {
             if (event.getState() == State.PUBLISHED) {
                 throw new ConflictException("Cannot publish the event because it's not in the right state: "
@@ -89,6 +107,10 @@ public class EventServiceImpl implements EventService {
 
     @Override
     public EventFullDto getEvent(Long eventId) {
+        return eventLoads.execute(eventId, () -> loadPublishedEvent(eventId));
+    }
+
+    private EventFullDto loadPublishedEvent(Long eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException("Event with id " + eventId + " not found"));
 
@@ -96,58 +118,54 @@ public class EventServiceImpl implements EventService {
             throw new NotFoundException("Event with id " + eventId + " has not been published");
         }
 
-        return mapToFullDto(List.of(event)).getFirst();
+        return eventEnricher.toFullDtos(List.of(event)).getFirst();
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<EventFullDto> findEvents(EventAdminParam param) {
+        if (param.getCursor() != null) {
+            // Страница по курсору всегда начинается сразу после него, from не учитывается
+            List<Event> events = param.getSize() == 0
+                    ? eventRepository.findEventsByParam(param, 0)
+                    : eventRepository.findEventsByParam(param, PageRequest.of(0, param.getSize()));
+            return eventEnricher.toFullDtos(events);
+        }
         if (param.getSize() == 0) {
             List<Event> events = eventRepository.findEventsByParam(param, param.getFrom());
-            return mapToFullDto(events);
+            return eventEnricher.toFullDtos(events);
         }
         if (param.getFrom() > param.getSize()) {
             return List.of();
         }
         PageRequest pageRequest = PageRequest.of(param.getFrom() / param.getSize(), param.getSize());
         List<Event> events = eventRepository.findEventsByParam(param, pageRequest);
-        return mapToFullDto(events);
+        return eventEnricher.toFullDtos(events);
     }
 
-    @Transactional(readOnly = true)
     @Override
     public List<EventShortDto> findEvents(EventPublicParam param) {
-        List<Event> events;
-        if (param.getSize() == 0) {
-            events = eventRepository.findEventsByParam(param, param.getFrom());
-        } else if (param.getFrom() < param.getSize()) {
-            PageRequest pageRequest = PageRequest.of(param.getFrom() / param.getSize(), param.getSize());
-            events = eventRepository.findEventsByParam(param, pageRequest);
-        } else {
-            return List.of();
-        }
-
-        if (param.getRangeStart() != null && param.getRangeEnd() != null
-                && param.getRangeStart().isAfter(param.getRangeEnd())) {
-            throw new IllegalArgumentException("DateStart cannot be later than the dateEnd");
-        }
+        // Ожидающие получают общий результат, поэтому каждому отдаётся своя копия списка
+        return new ArrayList<>(eventSearches.execute(EventSearchKey.of(param), () -> publicEventSearch.search(param)));
+    }
 
-        List<EventShortDto> eventShortDtos = mapToShortDto(events);
-        List<EventShortDto> mutableEvents = new ArrayList<>(eventShortDtos);
-
-        if (param.getSort() != null) {
-            switch (param.getSort()) {
-                case "EVENT_DATE":
-                    mutableEvents.sort(Comparator.comparing(EventShortDto::getEventDate));
-                    break;
-                case "VIEWS":
-                    mutableEvents.sort(Comparator.comparing(EventShortDto::getViews).reversed());
-                    break;
-                default:
-                    break;
-            }
+    /**
+     * Неизменяемый снимок параметров поиска: EventPublicParam изменяем, и его нельзя держать ключом,
+     * пока запрос выполняется.
+     */
+    private record EventSearchKey(String text, Set<Long> categories, Boolean paid,
+                                  LocalDateTime rangeStart, LocalDateTime rangeEnd, Boolean onlyAvailable,
+                                  String sort, Integer from, Integer size,
+                                  LocalDateTime cursorTimestamp, Long cursorId) {
+
+        static EventSearchKey of(EventPublicParam param) {
+            KeysetCursor cursor = param.getCursor();
+            return new EventSearchKey(param.getText(),
+                    param.getCategories() != null ? Set.copyOf(param.getCategories()) : null,
+                    param.getPaid(), param.getRangeStart(), param.getRangeEnd(), param.getOnlyAvailable(),
+                    param.getSort(), param.getFrom(), param.getSize(),
+                    cursor != null ? cursor.getTimestamp() : null, cursor != null ? cursor.getId() : null);
         }
-        return mutableEvents;
     }
 
     @Transactional
@@ -164,44 +182,32 @@ public class EventServiceImpl implements EventService {
                     List.of());
         }
 
-        EventFullDto eventFullDto = mapToFullDto(List.of(event)).getFirst();
-
-
         if (eventRequestStatusUpdateRequest.getStatus() == Status.CONFIRMED) {
-            int freeLimit = (int) Math.min(eventFullDto.getParticipantLimit() - eventFullDto.getConfirmedRequests(), eventRequestStatusUpdateRequest.getRequestIds().size());
-            if (freeLimit <= 0) {
+            List<ParticipationRequestDtoOut> requests = requestClient.getByIds(eventRequestStatusUpdateRequest.getRequestIds());
+            requests.stream()
+                    .filter(obj -> obj.getStatus() == Status.REJECTED)
+                    .findFirst()
+                    .ifPresent(obj -> {
+                        throw new ConflictException("Request with id " + obj.getId() + " has been rejected. It cannot be confirmed");
+                    });
+
+            // Места занимает request-service условным обновлением счётчика, не превышая лимит
+            // при параллельных подтверждениях; не поместившиеся заявки он отклоняет
+            Set<Long> confirmedIds = new HashSet<>(requestClient.confirmRequests(
+                    eventRequestStatusUpdateRequest.getRequestIds(), event.getParticipantLimit()));
+            if (confirmedIds.isEmpty()) {
                 throw new ConflictException("The participant limit has been reached");
             }
 
-            List<Long> confirmedIds = eventRequestStatusUpdateRequest.getRequestIds().subList(0,
-                    freeLimit);
-            List<Long> rejectedIds = eventRequestStatusUpdateRequest.getRequestIds().subList(freeLimit,
-                    eventRequestStatusUpdateRequest.getRequestIds().size());
-
-            List<ParticipationRequestDtoOut> requests = requestClient.getByIds(eventRequestStatusUpdateRequest.getRequestIds());
-
-            List<ParticipationRequestDtoOut> rejected = requests.stream()
-                    .filter(obj -> rejectedIds.contains(obj.getId()))
-                    .peek(obj -> {
-                        if (obj.getStatus() == Status.CONFIRMED) {
-                            throw new ConflictException("Request with id " + obj.getId() + " has been confirmed. It cannot be rejected ");
-                        }
-                    })
-                    .peek(obj -> obj.setStatus(Status.REJECTED))
-                    .toList();
-
             List<ParticipationRequestDtoOut> confirmed = requests.stream()
                     .filter(obj -> confirmedIds.contains(obj.getId()))
-                    .peek(obj -> {
-                        if (obj.getStatus() == Status.REJECTED) {
-                            throw new ConflictException("Request with id " + obj.getId() + " has been confirmed. It cannot be rejected ");
-                        }
-                    })
                     .peek(obj -> obj.setStatus(Status.CONFIRMED))
                     .toList();
 
-            requestClient.setStatusRequests(rejectedIds, Status.REJECTED);
-            requestClient.setStatusRequests(confirmedIds, Status.CONFIRMED);
+            List<ParticipationRequestDtoOut> rejected = requests.stream()
+                    .filter(obj -> !confirmedIds.contains(obj.getId()))
+                    .peek(obj -> obj.setStatus(Status.REJECTED))
+                    .toList();
 
             return new SwitchRequestsStatus(confirmed, rejected);
         } else {
@@ -230,7 +236,10 @@ public class EventServiceImpl implements EventService {
         return requestClient.getByEventId(eventId);
     }
 
+    @Transactional
     @Override
+    @CacheEvict(cacheNames = {CacheNames.COMPILATIONS, CacheNames.COMPILATION},
+            allEntries = true)
     public EventFullDto updateEvent(UpdateEventUserRequest updateEventUserRequest, Long eventId, Long userId) {
         Event event = eventRepository.findById(eventId).orElseThrow(() -> new NotFoundException("Event not found"));
         if (!event.getInitiatorId().equals(userId)) {
@@ -260,7 +269,9 @@ public class EventServiceImpl implements EventService {
             event.setState(State.CANCELED);
         }
         event = eventRepository.save(event);
-        return mapToFullDto(List.of(event)).getFirst();
+        // Неопубликованное событие может входить в подборки
+        contentVersions.changed(Content.EVENTS);
+        return eventEnricher.toFullDtos(List.of(event)).getFirst();
     }
 
     @Override
@@ -271,7 +282,7 @@ public class EventServiceImpl implements EventService {
         if (!event.getInitiatorId().equals(userId)) {
             throw new NoHavePermissionException("No allowed to access this event");
         }
-        return mapToFullDto(List.of(event)).getFirst();
+        return eventEnricher.toFullDtos(List.of(event)).getFirst();
     }
 
     @Transactional
@@ -289,74 +300,50 @@ public class EventServiceImpl implements EventService {
             event.setState(State.PENDING);
         }
         event = eventRepository.save(event);
-        return mapToFullDto(List.of(event)).getFirst();
+        return eventEnricher.toFullDtos(List.of(event)).getFirst();
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<EventShortDto> getEventsForUser(Long userId, Integer from, Integer to) {
-        List<Event> events;
+        List<EventShortProjection> events;
         if (to == 0) {
-            events = eventRepository.findAllByInitiatorId(userId).stream()
-                    .skip(from)
-                    .toList();
+            events = eventRepository.findShortEventsByInitiatorId(userId, from);
         } else if (from < to && to > 0) {
             PageRequest pageRequest = PageRequest.of(from / to, to);
-            events = eventRepository.findAllByInitiatorId(userId, pageRequest);
+            events = eventRepository.findShortEventsByInitiatorId(userId, pageRequest);
         } else {
             return List.of();
         }
 
-
-        Map<Long, Long> views = Map.of();
-
-        if (events.isEmpty()) {
-            return List.of();
-        }
-        try {
-            views = statClientService.getEventsView(events);
-        } catch (Exception e) {
-            log.error(e.getMessage());
-        }
-
-        Map<Long, UserShortDto> userMap = getUserMap(events);
-        List<EventShortDto> eventShortDtos = events.stream()
-                .map(event -> eventMapper.toEventShortDto(event, userMap.get(event.getInitiatorId())))
-                .toList();
-
-        if (!views.isEmpty()) {
-            for (EventShortDto eventShortDto : eventShortDtos) {
-                eventShortDto.setViews(views.get(eventShortDto.getId()));
-            }
-        } else {
-            eventShortDtos.forEach(eventShortDto -> eventShortDto.setViews(0L));
-        }
-        return eventShortDtos;
+        return eventEnricher.toShortDtosFromProjections(events);
     }
 
     @Override
     public EventFullDto getEventFullDtoById(Long eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException("Event with id " + eventId + " not found"));
-        return mapToFullDto(List.of(event)).getFirst();
+        return eventEnricher.toFullDtos(List.of(event)).getFirst();
     }
 
     @Override
     public EventShortDto getEventShortDtoById(Long eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new NotFoundException("Event with id " + eventId + " not found"));
-        return mapToShortDto(List.of(event)).getFirst();
+        return eventEnricher.toShortDtos(List.of(event)).getFirst();
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<EventShortDto> getByIds(List<Long> ids) {
-        List<Event> foundEvents = eventRepository.findAllByIdIn(ids);
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        List<EventShortProjection> foundEvents = eventRepository.findShortEventsByIds(uniqueIds);
 
         Set<Long> foundIds = foundEvents.stream()
-                .map(Event::getId)
+                .map(EventShortProjection::getId)
                 .collect(Collectors.toSet());
 
-        List<Long> notFoundIds = ids.stream()
+        List<Long> notFoundIds = uniqueIds.stream()
                 .filter(id -> !foundIds.contains(id))
                 .toList();
 
@@ -364,18 +351,8 @@ public class EventServiceImpl implements EventService {
             throw new NotFoundException("Events with IDs " + notFoundIds + " not found.");
         }
 
-        return foundEvents.stream()
-                .map(event -> mapToShortDto(List.of(event)).getFirst())
-                .toList();
-    }
-
-    private Map<Long, UserShortDto> getUserMap(List<Event> events) {
-        List<Long> initiatorIds = events.stream()
-                .map(Event::getInitiatorId)
-                .toList();
-
-        return userClient.getByIds(initiatorIds).stream()
-                .collect(Collectors.toMap(UserShortDto::getId, identity()));
+        // Одно обогащение на всю пачку: по одному запросу в request-service, user-service и stats-server
+        return eventEnricher.toShortDtosFromProjections(foundEvents);
     }
 
     private void dateValidation(LocalDateTime date, int hours) {
@@ -384,63 +361,6 @@ public class EventServiceImpl implements EventService {
         }
     }
 
-    private List<EventFullDto> mapToFullDto(List<Event> events) {
-        List<Long> ids = events.stream()
-                .map(Event::getId)
-                .toList();
-        Map<Long, Long> confirmedRequests = getRequests(ids, Status.CONFIRMED);
-        Map<Long, Long> rejectedRequests = getRequests(ids, Status.REJECTED);
-        Map<Long, Long> views = statClientService.getEventsView(events);
-
-        Map<Long, UserShortDto> userMap = getUserMap(events);
-        List<EventFullDto> eventFullDtos = events.stream()
-                .map(event -> eventMapper.toEventFullDto(event, userMap.get(event.getInitiatorId())))
-                .toList();
-
-        for (EventFullDto eventFullDto : eventFullDtos) {
-            eventFullDto.setConfirmedRequests(confirmedRequests.getOrDefault(eventFullDto.getId(), 0L));
-
-            eventFullDto.setViews(views.getOrDefault(eventFullDto.getId(), 0L));
-
-            if (!eventFullDto.getRequestModeration() || eventFullDto.getParticipantLimit() == 0) {
-                eventFullDto.setConfirmedRequests(eventFullDto.getConfirmedRequests() +
-                        rejectedRequests.getOrDefault(eventFullDto.getId(), 0L));
-            }
-
-        }
-
-        return eventFullDtos;
-    }
-
-    private List<EventShortDto> mapToShortDto(List<Event> events) {
-        List<Long> ids = events.stream()
-                .map(Event::getId)
-                .toList();
-        Map<Long, Long> confirmedRequests = getRequests(ids, Status.CONFIRMED);
-        Map<Long, Long> rejectedRequests = getRequests(ids, Status.REJECTED);
-        Map<Long, Long> views = statClientService.getEventsView(events);
-
-        Map<Long, UserShortDto> userMap = getUserMap(events);
-        List<EventShortDto> eventShortDtos = events.stream()
-                .map(event -> eventMapper.toEventShortDto(event, userMap.get(event.getInitiatorId())))
-                .toList();
-
-        for (EventShortDto eventShortDto : eventShortDtos) {
-            eventShortDto.setConfirmedRequests(confirmedRequests.getOrDefault(eventShortDto.getId(), 0L));
-            eventShortDto.setViews(views.getOrDefault(eventShortDto.getId(), 0L));
-        }
-
-        return eventShortDtos;
-    }
-
-    private Map<Long, Long> getRequests(List<Long> events, Status status) {
-        return requestClient.getCountRequestByEventId(events, status).stream()
-                .collect(Collectors.toMap(
-                        row -> ((Number) row[0]).longValue(),
-                        row -> ((Number) row[1]).longValue()
-                ));
-    }
-
     private Map<Long, UserDto> getUsersByEventIds(List<Long> eventIds) {
         return eventRepository.getUsersByEventIds(eventIds).stream()
                 .collect(Collectors.toMap(eventId -> (Long) eventId[0],
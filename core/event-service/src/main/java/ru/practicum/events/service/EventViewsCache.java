@@ -0,0 +1,120 @@
+package ru.practicum.events.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэш просмотров событий. Устаревшие значения отдаются сразу, а их обновление выполняется
+ * фоновой задачей одним запросом к stats-server на пачку событий. Синхронно запрашиваются
+ * только события, которых ещё нет в кэше.
+ */
+@Slf4j
+@Component
+public class EventViewsCache {
+    private final StatClientService statClientService;
+    private final EventViewsCacheProperties properties;
+    private final Cache<Long, ViewsEntry> cache;
+    private final Set<Long> staleIds = ConcurrentHashMap.newKeySet();
+
+    public EventViewsCache(StatClientService statClientService, EventViewsCacheProperties properties) {
+        this.statClientService = statClientService;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfter())
+                .build();
+    }
+
+    /**
+     * @param publishedOn дата публикации по id события, неопубликованные события (null) пропускаются
+     */
+    public Map<Long, Long> getViews(Map<Long, LocalDateTime> publishedOn) {
+        Map<Long, Long> views = new HashMap<>();
+        Map<Long, LocalDateTime> missing = new HashMap<>();
+        long staleBefore = System.nanoTime() - properties.getStaleAfter().toNanos();
+
+        publishedOn.forEach((eventId, published) -> {
+            if (published == null) {
+                return;
+            }
+            ViewsEntry entry = cache.getIfPresent(eventId);
+            if (entry == null || !entry.getPublishedOn().equals(published)) {
+                missing.put(eventId, published);
+                return;
+            }
+            views.put(eventId, entry.getViews());
+            if (entry.getLoadedAt() < staleBefore) {
+                staleIds.add(eventId);
+            }
+        });
+
+        if (!missing.isEmpty()) {
+            try {
+                views.putAll(load(missing));
+            } catch (Exception e) {
+                log.error("Failed to load views for events {}: {}", missing.keySet(), e.getMessage());
+            }
+        }
+        return views;
+    }
+
+    @Scheduled(fixedDelayString = "${event-service.views-cache.refresh-interval:5s}")
+    public void refreshStale() {
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        Iterator<Long> iterator = staleIds.iterator();
+        while (iterator.hasNext()) {
+            Long id = iterator.next();
+            iterator.remove();
+            ViewsEntry entry = cache.getIfPresent(id);
+            if (entry != null) {
+                batch.put(id, entry.getPublishedOn());
+            }
+            if (batch.size() == properties.getRefreshBatchSize()) {
+                refresh(batch);
+                batch = new HashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            refresh(batch);
+        }
+    }
+
+    private void refresh(Map<Long, LocalDateTime> batch) {
+        try {
+            load(batch);
+            log.debug("Refreshed views for {} events", batch.size());
+        } catch (Exception e) {
+            // Старые значения остаются в кэше до следующего обращения
+            log.warn("Failed to refresh views for {} events: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private Map<Long, Long> load(Map<Long, LocalDateTime> publishedOn) {
+        Map<Long, Long> views = new HashMap<>(statClientService.getViews(publishedOn));
+        long loadedAt = System.nanoTime();
+        publishedOn.forEach((id, published) -> {
+            long count = views.getOrDefault(id, 0L);
+            views.put(id, count);
+            cache.put(id, new ViewsEntry(count, published, loadedAt));
+        });
+        return views;
+    }
+
+    @Value
+    private static class ViewsEntry {
+        long views;
+        LocalDateTime publishedOn;
+        long loadedAt;
+    }
+}
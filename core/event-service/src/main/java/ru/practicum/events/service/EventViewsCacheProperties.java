@@ -0,0 +1,24 @@
+package ru.practicum.events.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "event-service.views-cache")
+public class EventViewsCacheProperties {
+    private long maximumSize = 100_000;
+    /**
+     * После этого времени просмотры отдаются из кэша, но событие ставится в очередь на фоновое обновление.
+     */
+    private Duration staleAfter = Duration.ofSeconds(30);
+    /**
+     * Записи, которые никто не запрашивал и не обновлял дольше этого времени, удаляются.
+     */
+    private Duration expireAfter = Duration.ofMinutes(10);
+    private Duration refreshInterval = Duration.ofSeconds(5);
+    private int refreshBatchSize = 200;
+}
@@ -0,0 +1,162 @@
+package ru.practicum.events.service;
+
+import interaction.client.IdBatches;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.events.storage.EventRepository;
+import ru.practicum.events.storage.EventViewsRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Переносит просмотры опубликованных событий из stats-server в таблицу event_views,
+ * по которой поиск сортирует выдачу при sort=VIEWS. Для сортировки хватает оценки по
+ * HyperLogLog-скетчам, поэтому точный COUNT(DISTINCT ip) здесь не используется.
+ * <p>
+ * Каждый запуск обновляет только события, которые просматривали с прошлого успешного запуска
+ * (с запасом lag на хиты, которые приходят с задержкой). Раз в full-sweep-interval и при старте
+ * сервиса обходятся все опубликованные события. Пачка, на которой stats-server не ответил,
+ * пропускается, а окно не сдвигается, чтобы следующий запуск её повторил.
+ */
+@Slf4j
+@Component
+public class EventViewsReplicator {
+    private final EventRepository eventRepository;
+    private final EventViewsRepository eventViewsRepository;
+    private final StatClientService statClientService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration lag;
+    private final Duration fullSweepInterval;
+
+    // Вызывается только планировщиком, fixedDelay исключает параллельные запуски
+    private LocalDateTime replicatedUntil;
+    private LocalDateTime lastFullSweep;
+
+    public EventViewsReplicator(EventRepository eventRepository,
+                                EventViewsRepository eventViewsRepository,
+                                StatClientService statClientService,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${event-service.views-replication.batch-size:100}") int batchSize,
+                                @Value("${event-service.views-replication.lag:5m}") Duration lag,
+                                @Value("${event-service.views-replication.full-sweep-interval:1h}")
+                                Duration fullSweepInterval) {
+        this.eventRepository = eventRepository;
+        this.eventViewsRepository = eventViewsRepository;
+        this.statClientService = statClientService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.lag = lag;
+        this.fullSweepInterval = fullSweepInterval;
+    }
+
+    @Scheduled(fixedDelayString = "${event-service.views-replication.interval:1m}")
+    public void replicate() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean replicated;
+        if (lastFullSweep == null || !now.isBefore(lastFullSweep.plus(fullSweepInterval))) {
+            replicated = replicateAll();
+            if (replicated) {
+                lastFullSweep = now;
+            }
+        } else {
+            replicated = replicateViewedSince(replicatedUntil.minus(lag), now);
+        }
+        if (replicated) {
+            replicatedUntil = now;
+        }
+    }
+
+    private boolean replicateAll() {
+        long afterId = 0;
+        int replicated = 0;
+        int failed = 0;
+        List<Object[]> batch;
+        do {
+            try {
+                batch = eventRepository.findPublishedAfter(afterId, PageRequest.of(0, batchSize));
+            } catch (Exception e) {
+                log.warn("Failed to load published events after {}: {}", afterId, e.getMessage());
+                return false;
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+            if (replicateBatch(batch)) {
+                replicated += batch.size();
+            } else {
+                failed += batch.size();
+            }
+            afterId = (Long) batch.getLast()[0];
+        } while (batch.size() == batchSize);
+        log.debug("Replicated views for {} events, failed for {}", replicated, failed);
+        return failed == 0;
+    }
+
+    private boolean replicateViewedSince(LocalDateTime start, LocalDateTime end) {
+        List<Long> eventIds;
+        try {
+            eventIds = statClientService.getViewedEventIds(start, end).stream()
+                    .sorted()
+                    .toList();
+        } catch (Exception e) {
+            log.warn("Failed to load events viewed from {} to {}: {}", start, end, e.getMessage());
+            return false;
+        }
+        int replicated = 0;
+        int failed = 0;
+        for (List<Long> ids : IdBatches.partition(eventIds, batchSize)) {
+            List<Object[]> batch;
+            try {
+                batch = eventRepository.findPublishedByIdIn(ids);
+            } catch (Exception e) {
+                log.warn("Failed to load published events {}..{}: {}", ids.getFirst(), ids.getLast(), e.getMessage());
+                failed += ids.size();
+                continue;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            if (replicateBatch(batch)) {
+                replicated += batch.size();
+            } else {
+                failed += batch.size();
+            }
+        }
+        log.debug("Replicated views for {} events viewed since {}, failed for {}", replicated, start, failed);
+        return failed == 0;
+    }
+
+    private boolean replicateBatch(List<Object[]> batch) {
+        Map<Long, LocalDateTime> publishedOn = new HashMap<>();
+        for (Object[] row : batch) {
+            publishedOn.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        try {
+            store(publishedOn, statClientService.getApproximateViews(publishedOn));
+            return true;
+        } catch (Exception e) {
+            // Остальные пачки продолжают обновляться, эту повторит следующий запуск
+            log.warn("Failed to replicate views for events {}..{}: {}",
+                    batch.getFirst()[0], batch.getLast()[0], e.getMessage());
+            return false;
+        }
+    }
+
+    private void store(Map<Long, LocalDateTime> publishedOn, Map<Long, Long> views) {
+        Long[] eventIds = publishedOn.keySet().toArray(Long[]::new);
+        Long[] counts = new Long[eventIds.length];
+        for (int i = 0; i < eventIds.length; i++) {
+            counts[i] = views.getOrDefault(eventIds[i], 0L);
+        }
+        transactionTemplate.executeWithoutResult(status -> eventViewsRepository.upsertAll(eventIds, counts));
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.events.service;
+
+import interaction.model.event.output.EventShortDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.events.model.EventPublicParam;
+import ru.practicum.events.model.EventShortProjection;
+import ru.practicum.events.storage.EventRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Публичный поиск событий. Вынесен из EventServiceImpl, чтобы read-only транзакцию открывал только поток,
+ * выполняющий поиск, а объединённые с ним запросы ждали результат без соединения с БД.
+ */
+@Component
+@RequiredArgsConstructor
+public class PublicEventSearch {
+    private final EventRepository eventRepository;
+    private final EventEnricher eventEnricher;
+
+    @Transactional(readOnly = true)
+    public List<EventShortDto> search(EventPublicParam param) {
+        List<EventShortProjection> events;
+        if (param.getCursor() != null) {
+            if (!param.isCursorPageable()) {
+                throw new IllegalArgumentException("Cursor pagination is supported only for sort by event date");
+            }
+            events = param.getSize() == 0
+                    ? eventRepository.findShortEventsByParam(param, 0)
+                    : eventRepository.findShortEventsByParam(param, PageRequest.of(0, param.getSize()));
+        } else if (param.getSize() == 0) {
+            events = eventRepository.findShortEventsByParam(param, param.getFrom());
+        } else if (param.getFrom() < param.getSize()) {
+            PageRequest pageRequest = PageRequest.of(param.getFrom() / param.getSize(), param.getSize());
+            events = eventRepository.findShortEventsByParam(param, pageRequest);
+        } else {
+            return List.of();
+        }
+
+        if (param.getRangeStart() != null && param.getRangeEnd() != null
+                && param.getRangeStart().isAfter(param.getRangeEnd())) {
+            throw new IllegalArgumentException("DateStart cannot be later than the dateEnd");
+        }
+
+        List<EventShortDto> eventShortDtos = eventEnricher.toShortDtosFromProjections(events);
+        List<EventShortDto> mutableEvents = new ArrayList<>(eventShortDtos);
+
+        // Сортировка по просмотрам и релевантности уже выполнена в запросе
+        if (EventPublicParam.SORT_EVENT_DATE.equals(param.getSort())) {
+            mutableEvents.sort(Comparator.comparing(EventShortDto::getEventDate));
+        }
+        return mutableEvents;
+    }
+}
@@ -1,11 +1,11 @@
 package ru.practicum.events.service;
 
+import interaction.client.IdBatches;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import ru.practicum.client.StatsFeinClient;
 import ru.practicum.dto.output.GetStatisticDto;
-import ru.practicum.events.model.Event;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -15,52 +15,89 @@ import java.util.*;
 @Component
 @Slf4j
 public class StatClientService {
+    // uri передаётся как uris=%2Fevents%2F<id>, около 30 байт на событие
+    static final int URIS_PER_REQUEST = 100;
+    private static final String EVENT_URI_PREFIX = "/events/";
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private final StatsFeinClient statsClient;
 
-    public Map<Long, Long> getEventsView(List<Event> events) {
-        //eventId, views
-        Map<Long, Long> views = new HashMap<>();
+    public Map<Long, Long> getViews(Map<Long, LocalDateTime> publishedOn) {
+        return getViews(publishedOn, false);
+    }
 
-        List<Event> publishedEvents = events.stream()
-                .filter(event -> event.getPublishedOn() != null)
-                .toList();
+    /**
+     * Уникальные просмотры по HyperLogLog-скетчам stats-server: погрешность около 1.6%,
+     * зато без COUNT(DISTINCT ip) по сырым хитам.
+     */
+    public Map<Long, Long> getApproximateViews(Map<Long, LocalDateTime> publishedOn) {
+        return getViews(publishedOn, true);
+    }
 
-        if (publishedEvents.isEmpty()) {
-            return views;
-        }
+    /**
+     * id событий, страницы которых просматривали в [start, end]. Считается по агрегатам
+     * без учёта уникальности ip, одним запросом по всем uri.
+     */
+    public Set<Long> getViewedEventIds(LocalDateTime start, LocalDateTime end) {
+        Set<Long> eventIds = new HashSet<>();
+        statsClient.getStatistic(start.format(DATE_TIME_FORMAT), end.format(DATE_TIME_FORMAT), List.of(), false, false)
+                .forEach(statDto -> {
+                    Long eventId = parseEventId(statDto.getUri());
+                    if (eventId != null) {
+                        eventIds.add(eventId);
+                    }
+                });
+        return eventIds;
+    }
 
-        Optional<LocalDateTime> minPublishedOn = publishedEvents.stream()
-                .map(Event::getPublishedOn)
-                .filter(Objects::nonNull)
-                .min(LocalDateTime::compareTo);
+    private Map<Long, Long> getViews(Map<Long, LocalDateTime> publishedOn, boolean approximate) {
+        //eventId, views
+        Map<Long, Long> views = new HashMap<>();
 
-        if (minPublishedOn.isEmpty()) {
-            return views;
-        }
+        // У неопубликованных событий нет публичной страницы, а значит и просмотров
+        List<Map.Entry<Long, LocalDateTime>> published = publishedOn.entrySet().stream()
+                .filter(entry -> entry.getValue() != null)
+                .toList();
 
-        LocalDateTime start = minPublishedOn.get();
+        String end = LocalDateTime.now().format(DATE_TIME_FORMAT);
 
+        for (List<Map.Entry<Long, LocalDateTime>> batch : IdBatches.partition(published, URIS_PER_REQUEST)) {
+            LocalDateTime start = batch.stream()
+                    .map(Map.Entry::getValue)
+                    .min(LocalDateTime::compareTo)
+                    .orElseThrow();
 
-        List<String> uri = publishedEvents.stream()
-                .map(Event::getId)
-                .map(id -> "/events/" + id)
-                .toList();
+            List<String> uri = batch.stream()
+                    .map(entry -> EVENT_URI_PREFIX + entry.getKey())
+                    .toList();
 
-        DateTimeFormatter dateTimeFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        List<GetStatisticDto> stats = statsClient.getStatistic(
-                start.format(dateTimeFormat),
-                LocalDateTime.now().format(dateTimeFormat),
-                uri,
-                true
-        );
+            List<GetStatisticDto> stats = statsClient.getStatistic(
+                    start.format(DATE_TIME_FORMAT),
+                    end,
+                    uri,
+                    true,
+                    approximate
+            );
 
-        stats.forEach(statDto -> {
-            String[] parts = statDto.getUri().split("/");
-            if (parts.length >= 3) {
-                Long eventId = Long.parseLong(parts[2]);
-                views.put(eventId, statDto.getHits());
-            }
-        });
+            stats.forEach(statDto -> {
+                Long eventId = parseEventId(statDto.getUri());
+                if (eventId != null) {
+                    views.put(eventId, statDto.getHits());
+                }
+            });
+        }
         return views;
     }
+
+    private Long parseEventId(String uri) {
+        if (uri == null || !uri.startsWith(EVENT_URI_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(uri.substring(EVENT_URI_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            // Например /events/by-ids или /events/1/comments
+            return null;
+        }
+    }
 }
@@ -4,7 +4,9 @@ import org.springframework.data.domain.Pageable;
 import ru.practicum.events.model.Event;
 import ru.practicum.events.model.EventAdminParam;
 import ru.practicum.events.model.EventPublicParam;
+import ru.practicum.events.model.EventShortProjection;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface EventQueryDslRepository {
@@ -12,7 +14,13 @@ public interface EventQueryDslRepository {
 
     List<Event> findEventsByParam(EventAdminParam param, int offset);
 
-    List<Event> findEventsByParam(EventPublicParam param, Pageable pageable);
+    List<EventShortProjection> findShortEventsByParam(EventPublicParam param, Pageable pageable);
 
-    List<Event> findEventsByParam(EventPublicParam param, int offset);
+    List<EventShortProjection> findShortEventsByParam(EventPublicParam param, int offset);
+
+    List<EventShortProjection> findShortEventsByInitiatorId(Long initiatorId, Pageable pageable);
+
+    List<EventShortProjection> findShortEventsByInitiatorId(Long initiatorId, int offset);
+
+    List<EventShortProjection> findShortEventsByIds(Collection<Long> ids);
 }
@@ -1,20 +1,35 @@
 package ru.practicum.events.storage;
 
 import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import interaction.model.event.State;
+import interaction.model.pagination.KeysetCursor;
 import jakarta.persistence.EntityManager;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import ru.practicum.category.model.QCategory;
 import ru.practicum.events.model.*;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @Repository
 public class EventQueryDslRepositoryImpl implements EventQueryDslRepository {
+    private static final Pattern WORD_CHARACTER = Pattern.compile("[\\p{L}\\p{N}]");
+
     private final QEvent event = QEvent.event;
+    private final QEventViews eventViews = QEventViews.eventViews;
+    private final QCategory category = QCategory.category;
+    private final ConstructorExpression<EventShortProjection> shortProjection = Projections.constructor(
+            EventShortProjection.class, event.id, event.annotation, category.id, category.name,
+            event.eventDate, event.initiatorId, event.paid, event.title, event.publishedOn);
     private final JPAQueryFactory queryFactory;
 
     public EventQueryDslRepositoryImpl(EntityManager em) {
@@ -23,35 +38,74 @@ public class EventQueryDslRepositoryImpl implements EventQueryDslRepository {
 
     @Override
     public List<Event> findEventsByParam(EventAdminParam param, Pageable pageable) {
+        return adminQuery(param)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
 
-        BooleanBuilder predicate = new BooleanBuilder();
-        if (param.getUsers() != null && !param.getUsers().isEmpty()) {
-            predicate.and(event.initiatorId.in(param.getUsers()));
-        }
-        if (param.getStates() != null && !param.getStates().isEmpty()) {
-            predicate.and(event.state.in(param.getStates()));
-        }
-        if (param.getCategories() != null && !param.getCategories().isEmpty()) {
-            predicate.and(event.category.id.in(param.getCategories()));
-        }
-        if (param.getStart() != null) {
-            predicate.and(event.eventDate.after(param.getStart()));
-        }
-        if (param.getEnd() != null) {
-            predicate.and(event.eventDate.before(param.getEnd()));
-        }
+    @Override
+    public List<Event> findEventsByParam(EventAdminParam param, int offset) {
+        return adminQuery(param)
+                .offset(offset)
+                .fetch();
+    }
 
-        JPAQuery<Event> query = queryFactory
-                .selectFrom(event)
-                .where(predicate)
+    @Override
+    public List<EventShortProjection> findShortEventsByParam(EventPublicParam param, Pageable pageable) {
+        return publicQuery(param)
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
-                .orderBy(event.eventDate.desc());
-        return query.fetch();
+                .fetch();
     }
 
     @Override
-    public List<Event> findEventsByParam(EventAdminParam param, int offset) {
+    public List<EventShortProjection> findShortEventsByParam(EventPublicParam param, int offset) {
+        return publicQuery(param)
+                .offset(offset)
+                .fetch();
+    }
+
+    @Override
+    public List<EventShortProjection> findShortEventsByInitiatorId(Long initiatorId, Pageable pageable) {
+        return initiatorQuery(initiatorId)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    @Override
+    public List<EventShortProjection> findShortEventsByInitiatorId(Long initiatorId, int offset) {
+        return initiatorQuery(initiatorId)
+                .offset(offset)
+                .fetch();
+    }
+
+    @Override
+    public List<EventShortProjection> findShortEventsByIds(Collection<Long> ids) {
+        return shortQuery()
+                .where(event.id.in(ids))
+                .orderBy(event.id.asc())
+                .fetch();
+    }
+
+    /**
+     * Выборка колонок EventShortDto вместе с категорией одним запросом.
+     */
+    private JPAQuery<EventShortProjection> shortQuery() {
+        return queryFactory
+                .select(shortProjection)
+                .from(event)
+                .join(event.category, category);
+    }
+
+    private JPAQuery<EventShortProjection> initiatorQuery(Long initiatorId) {
+        return shortQuery()
+                .where(event.initiatorId.eq(initiatorId))
+                .orderBy(event.createdOn.asc(), event.id.asc());
+    }
+
+    private JPAQuery<Event> adminQuery(EventAdminParam param) {
 
         BooleanBuilder predicate = new BooleanBuilder();
         if (param.getUsers() != null && !param.getUsers().isEmpty()) {
@@ -69,29 +123,40 @@ public class EventQueryDslRepositoryImpl implements EventQueryDslRepository {
         if (param.getEnd() != null) {
             predicate.and(event.eventDate.before(param.getEnd()));
         }
+        if (param.getCursor() != null) {
+            predicate.and(after(param.getCursor()));
+        }
 
-        JPAQuery<Event> query = queryFactory
+        return queryFactory
                 .selectFrom(event)
                 .where(predicate)
-                .offset(offset)
-                .orderBy(event.eventDate.desc());
-        return query.fetch();
+                .orderBy(event.eventDate.desc(), event.id.desc());
     }
 
-    @Override
-    public List<Event> findEventsByParam(EventPublicParam param, Pageable pageable) {
+    private JPAQuery<EventShortProjection> publicQuery(EventPublicParam param) {
 
         BooleanBuilder predicate = new BooleanBuilder();
 
         predicate.and(QEvent.event.state.eq(State.PUBLISHED));
 
-        if (param.getText() != null && !param.getText().isEmpty()) {
+        // Разбор текста на лексемы выполняет PostgreSQL тем же парсером, что строит индекс
+        String searchQuery = param.getText() != null && WORD_CHARACTER.matcher(param.getText()).find()
+                ? param.getText() : null;
+        if (searchQuery != null) {
+            predicate.and(Expressions.booleanTemplate(EventSearchFunctionContributor.MATCH + "({0}, {1}, {2}) = true",
+                    event.annotation, event.description, searchQuery));
+        } else if (param.getText() != null && !param.getText().isEmpty()) {
+            // В тексте нет слов для полнотекстового поиска, ищем подстроку как раньше
             BooleanBuilder textConditions = new BooleanBuilder();
             textConditions.or(QEvent.event.annotation.containsIgnoreCase(param.getText()));
             textConditions.or(QEvent.event.description.containsIgnoreCase(param.getText()));
             predicate.and(textConditions);
         }
 
+        if (param.getCategories() != null && !param.getCategories().isEmpty()) {
+            predicate.and(QEvent.event.category.id.in(param.getCategories()));
+        }
+
         if (param.getPaid() != null) {
             predicate.and(QEvent.event.paid.eq(param.getPaid()));
         }
@@ -113,55 +178,29 @@ public class EventQueryDslRepositoryImpl implements EventQueryDslRepository {
             predicate.and(QEvent.event.participantLimit.gt(0));
         }
 
-        JPAQuery<Event> query = queryFactory
-                .selectFrom(event)
-                .where(predicate)
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .orderBy(event.eventDate.desc());
-        return query.fetch();
-    }
-
-    @Override
-    public List<Event> findEventsByParam(EventPublicParam param, int offset) {
-
-        BooleanBuilder predicate = new BooleanBuilder();
-
-        predicate.and(QEvent.event.state.eq(State.PUBLISHED));
-
-        if (param.getText() != null && !param.getText().isEmpty()) {
-            BooleanBuilder textConditions = new BooleanBuilder();
-            textConditions.or(QEvent.event.annotation.containsIgnoreCase(param.getText()));
-            textConditions.or(QEvent.event.description.containsIgnoreCase(param.getText()));
-            predicate.and(textConditions);
+        if (param.getCursor() != null) {
+            predicate.and(after(param.getCursor()));
         }
 
-        if (param.getPaid() != null) {
-            predicate.and(QEvent.event.paid.eq(param.getPaid()));
-        }
-
-        if (param.getRangeStart() != null) {
-            predicate.and(QEvent.event.eventDate.goe(param.getRangeStart()));
-        }
-
-        if (param.getRangeEnd() != null) {
-            predicate.and(QEvent.event.eventDate.loe(param.getRangeEnd()));
-        }
-
-        if (param.getRangeStart() == null && param.getRangeEnd() == null) {
-            predicate.and(QEvent.event.eventDate.goe(LocalDateTime.now()));
-
+        JPAQuery<EventShortProjection> query = shortQuery()
+                .where(predicate);
+        if (EventPublicParam.SORT_VIEWS.equals(param.getSort())) {
+            // У каждого опубликованного события есть строка в event_views, поэтому достаточно inner join
+            return query.join(eventViews).on(eventViews.eventId.eq(event.id))
+                    .orderBy(eventViews.views.desc(), event.id.desc());
         }
-
-        if (param.getOnlyAvailable() != null && param.getOnlyAvailable()) {
-            predicate.and(QEvent.event.participantLimit.gt(0));
+        if (searchQuery != null && EventPublicParam.SORT_RELEVANCE.equals(param.getSort())) {
+            query.orderBy(Expressions.numberTemplate(Double.class, EventSearchFunctionContributor.RANK + "({0}, {1}, {2})",
+                    event.annotation, event.description, searchQuery).desc());
         }
+        return query.orderBy(event.eventDate.desc(), event.id.desc());
+    }
 
-        JPAQuery<Event> query = queryFactory
-                .selectFrom(event)
-                .where(predicate)
-                .offset(offset)
-                .orderBy(event.eventDate.desc());
-        return query.fetch();
+    /**
+     * События, идущие после курсора в порядке (event_date, id) по убыванию.
+     */
+    private BooleanExpression after(KeysetCursor cursor) {
+        return event.eventDate.lt(cursor.getTimestamp())
+                .or(event.eventDate.eq(cursor.getTimestamp()).and(event.id.lt(cursor.getId())));
     }
 }
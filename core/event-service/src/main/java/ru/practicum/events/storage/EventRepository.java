@@ -7,28 +7,26 @@ import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.events.model.Event;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event>, EventQueryDslRepository {
-    @Query("SELECT e " +
-            "FROM Event AS e " +
-            "WHERE e.initiatorId = :initiatorId " +
-            "ORDER BY e.createdOn")
-    List<Event> findAllByInitiatorId(@Param("initiatorId") Long initiatorId, Pageable pageable);
-
-    @Query("SELECT e " +
-            "FROM Event AS e " +
-            "WHERE e.initiatorId = :initiatorId " +
-            "ORDER BY e.createdOn")
-    List<Event> findAllByInitiatorId(@Param("initiatorId") Long initiatorId);
-
     @Query("SELECT e.id, e.initiatorId " +
             "FROM Event AS e " +
             "WHERE e.id IN :eventsIds " +
             "GROUP BY e.id")
     List<Object[]> getUsersByEventIds(@Param("eventsIds") List<Long> eventIds);
 
-    boolean existsByCategoryId(Long id);
+    @Query("SELECT e.id, e.publishedOn " +
+            "FROM Event AS e " +
+            "WHERE e.state = interaction.model.event.State.PUBLISHED AND e.id > :afterId " +
+            "ORDER BY e.id")
+    List<Object[]> findPublishedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT e.id, e.publishedOn " +
+            "FROM Event AS e " +
+            "WHERE e.state = interaction.model.event.State.PUBLISHED AND e.id IN :eventIds")
+    List<Object[]> findPublishedByIdIn(@Param("eventIds") Collection<Long> eventIds);
 
-    List<Event> findAllByIdIn(List<Long> ids);
+    boolean existsByCategoryId(Long id);
 }
@@ -0,0 +1,33 @@
+package ru.practicum.events.storage;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Функции полнотекстового поиска по событиям для HQL/QueryDSL:
+ * fts_match(annotation, description, text) и fts_rank(annotation, description, text), где text - строка поиска.
+ * Выражение документа должно совпадать с индексом events_search_idx из schema.sql, иначе индекс не будет использован.
+ */
+public class EventSearchFunctionContributor implements FunctionContributor {
+    static final String MATCH = "fts_match";
+    static final String RANK = "fts_rank";
+
+    private static final String DOCUMENT = "(setweight(to_tsvector('simple', ?1), 'A') || " +
+            "setweight(to_tsvector('simple', ?2), 'B'))";
+    // Текст разбирается тем же парсером 'simple', что и документ, после чего каждая лексема ищется по префиксу
+    private static final String QUERY = "cast(regexp_replace(cast(plainto_tsquery('simple', ?3) as text), " +
+            "'''(\\s|$)', ''':*\\1', 'g') as tsquery)";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+        functionContributions.getFunctionRegistry().registerPattern(MATCH,
+                DOCUMENT + " @@ " + QUERY,
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(RANK,
+                "cast(ts_rank(" + DOCUMENT + ", " + QUERY + ") as double precision)",
+                types.resolve(StandardBasicTypes.DOUBLE));
+    }
+}
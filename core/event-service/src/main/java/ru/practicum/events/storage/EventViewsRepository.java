@@ -0,0 +1,23 @@
+package ru.practicum.events.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.events.model.EventViews;
+
+public interface EventViewsRepository extends JpaRepository<EventViews, Long> {
+    @Modifying
+    @Query(value = "INSERT INTO event_views (event_id, views, updated_on) " +
+            "VALUES (:eventId, 0, now()) " +
+            "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    void createIfAbsent(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query(value = "INSERT INTO event_views (event_id, views, updated_on) " +
+            "SELECT v.event_id, v.views, now() " +
+            "FROM unnest(CAST(:eventIds AS BIGINT[]), CAST(:views AS BIGINT[])) AS v(event_id, views) " +
+            "ON CONFLICT (event_id) DO UPDATE SET views = EXCLUDED.views, updated_on = EXCLUDED.updated_on " +
+            "WHERE event_views.views <> EXCLUDED.views", nativeQuery = true)
+    void upsertAll(@Param("eventIds") Long[] eventIds, @Param("views") Long[] views);
+}
@@ -29,6 +29,18 @@ CREATE TABLE IF NOT EXISTS events
     initiator_id       BIGINT                                              NOT NULL
 );
 
+-- Публичный поиск: только опубликованные события, порядок (event_date, id) по убыванию как в выдаче и курсоре
+CREATE INDEX IF NOT EXISTS events_published_event_date_idx ON events (event_date DESC, id DESC)
+    WHERE state = 'PUBLISHED';
+CREATE INDEX IF NOT EXISTS events_published_category_event_date_idx ON events (category_id, event_date DESC, id DESC)
+    WHERE state = 'PUBLISHED';
+
+-- Админский поиск по всем состояниям и по событиям пользователя
+CREATE INDEX IF NOT EXISTS events_event_date_idx ON events (event_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS events_state_event_date_idx ON events (state, event_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS events_initiator_created_on_idx ON events (initiator_id, created_on);
+CREATE INDEX IF NOT EXISTS events_category_idx ON events (category_id);
+
 CREATE TABLE IF NOT EXISTS compilations
 (
     id    BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
@@ -43,4 +55,29 @@ CREATE TABLE IF NOT EXISTS compilation_events
     PRIMARY KEY (compilation_id, event_id),
     FOREIGN KEY (compilation_id) REFERENCES compilations (id) ON DELETE CASCADE,
     FOREIGN KEY (event_id) REFERENCES events (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- Выражение должно совпадать с fts_match из EventSearchFunctionContributor
+CREATE INDEX IF NOT EXISTS events_search_idx ON events USING GIN
+    ((setweight(to_tsvector('simple', annotation), 'A') || setweight(to_tsvector('simple', description), 'B')));
+
+-- Просмотры событий, реплицируемые из stats-server (EventViewsReplicator)
+CREATE TABLE IF NOT EXISTS event_views
+(
+    event_id   BIGINT PRIMARY KEY REFERENCES events (id) ON DELETE CASCADE,
+    views      BIGINT DEFAULT 0 NOT NULL,
+    updated_on TIMESTAMP        NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS event_views_views_idx ON event_views (views DESC, event_id DESC);
+
+-- Счётчики изменений для ETag публичных ответов (ContentVersions)
+CREATE TABLE IF NOT EXISTS content_versions
+(
+    name    VARCHAR(32) PRIMARY KEY,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+
+INSERT INTO content_versions (name)
+VALUES ('events'), ('categories'), ('compilations')
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,116 @@
+package ru.practicum.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+    private static final int WAITERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void concurrentCallsWithSameKeyShareOneLoad() throws Exception {
+        FutureTask<String> leader = start(() -> singleFlight.execute("key", () -> blockingLoad("value")));
+        loading.await();
+        List<FutureTask<String>> waiters = startWaiters(() -> singleFlight.execute("key", () -> blockingLoad("other")));
+
+        release.countDown();
+
+        assertEquals("value", leader.get());
+        for (FutureTask<String> waiter : waiters) {
+            assertEquals("value", waiter.get());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void loaderExceptionReachesEveryWaiter() throws Exception {
+        IllegalStateException failure = new IllegalStateException("load failed");
+        FutureTask<String> leader = start(() -> singleFlight.execute("key", () -> {
+            blockingLoad(null);
+            throw failure;
+        }));
+        loading.await();
+        List<FutureTask<String>> waiters = startWaiters(() -> singleFlight.execute("key", () -> blockingLoad("other")));
+
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, leader::get).getCause());
+        for (FutureTask<String> waiter : waiters) {
+            assertSame(failure, assertThrows(ExecutionException.class, waiter::get).getCause());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void keyIsReleasedAfterCompletion() {
+        assertEquals("first", singleFlight.execute("key", () -> load("first")));
+        assertEquals("second", singleFlight.execute("key", () -> load("second")));
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            load(null);
+            throw new IllegalStateException("load failed");
+        }));
+        assertEquals("third", singleFlight.execute("key", () -> load("third")));
+
+        assertEquals(4, loads.get());
+    }
+
+    private String load(String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+
+    private String blockingLoad(String value) {
+        loads.incrementAndGet();
+        loading.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return value;
+    }
+
+    /**
+     * Запускает ожидающие вызовы и возвращается, когда все они встали на ожидание результата лидера.
+     */
+    private List<FutureTask<String>> startWaiters(Callable<String> call) throws Exception {
+        List<FutureTask<String>> waiters = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            FutureTask<String> waiter = new FutureTask<>(call);
+            Thread thread = new Thread(waiter);
+            thread.start();
+            waiters.add(waiter);
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+        }
+        return waiters;
+    }
+
+    private FutureTask<String> start(Callable<String> call) {
+        FutureTask<String> task = new FutureTask<>(call);
+        new Thread(task).start();
+        return task;
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.common.version;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.category.controller.CategoryPublicController;
+import ru.practicum.category.service.CategoryService;
+import ru.practicum.client.StatsHitPublisher;
+import ru.practicum.compilation.controller.CompilationPublicController;
+import ru.practicum.compilation.service.CompilationServiceImpl;
+import ru.practicum.events.controller.PublicEventsController;
+import ru.practicum.events.service.EventService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Публичные эндпоинты отвечают 304 без тела и без обращения к сервисам, если ETag не изменился.
+ */
+class ConditionalGetTest {
+    private static final String ETAG = "W/\"categories.1\"";
+    private static final String ETAG_WITH_STATISTICS = "W/\"events.1-categories.1-1\"";
+    private static final String COMPILATION_ETAG = "W/\"compilations.1-events.1-categories.1-1\"";
+
+    private final CategoryService categoryService = mock(CategoryService.class);
+    private final EventService eventService = mock(EventService.class);
+    private final CompilationServiceImpl compilationService = mock(CompilationServiceImpl.class);
+    private final StatsHitPublisher hitPublisher = mock(StatsHitPublisher.class);
+    private final ContentVersions contentVersions = mock(ContentVersions.class);
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        when(contentVersions.etag(Content.CATEGORIES)).thenReturn(ETAG);
+        when(contentVersions.etagWithStatistics(Content.EVENTS, Content.CATEGORIES)).thenReturn(ETAG_WITH_STATISTICS);
+        when(contentVersions.etagWithStatistics(Content.COMPILATIONS, Content.EVENTS, Content.CATEGORIES))
+                .thenReturn(COMPILATION_ETAG);
+
+        mvc = MockMvcBuilders.standaloneSetup(
+                new CategoryPublicController(categoryService, contentVersions),
+                new PublicEventsController(hitPublisher, eventService, contentVersions),
+                new CompilationPublicController(compilationService, contentVersions)
+        ).build();
+    }
+
+    @Test
+    void categoriesNotModified() throws Exception {
+        expectNotModified("/categories", ETAG);
+        verifyNoInteractions(categoryService);
+    }
+
+    @Test
+    void categoryNotModified() throws Exception {
+        expectNotModified("/categories/1", ETAG);
+        verifyNoInteractions(categoryService);
+    }
+
+    @Test
+    void eventsNotModified() throws Exception {
+        expectNotModified("/events", ETAG_WITH_STATISTICS);
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void eventNotModified() throws Exception {
+        expectNotModified("/events/1", ETAG_WITH_STATISTICS);
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void compilationsNotModified() throws Exception {
+        expectNotModified("/compilations", COMPILATION_ETAG);
+        verifyNoInteractions(compilationService);
+    }
+
+    @Test
+    void compilationNotModified() throws Exception {
+        expectNotModified("/compilations/1", COMPILATION_ETAG);
+        verifyNoInteractions(compilationService);
+    }
+
+    @Test
+    void changedEtagReturnsBody() throws Exception {
+        when(categoryService.findById(any())).thenReturn(null);
+
+        mvc.perform(get("/categories/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"categories.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+    }
+
+    private ResultActions expectNotModified(String uri, String etag) throws Exception {
+        return mvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+}
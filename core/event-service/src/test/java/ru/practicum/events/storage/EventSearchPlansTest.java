@@ -0,0 +1,205 @@
+package ru.practicum.events.storage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import interaction.model.event.State;
+import interaction.model.pagination.KeysetCursor;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.events.model.EventAdminParam;
+import ru.practicum.events.model.EventPublicParam;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка планов поиска событий на большом наборе данных: ни один путь поиска не должен читать events
+ * или event_views через Seq Scan. Для каждого вызова репозитория перехватывается SQL, построенный
+ * Hibernate и QueryDSL, вместе с параметрами, и выполняется EXPLAIN (FORMAT JSON) с теми же параметрами.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Sql(scripts = "/event-search-plans-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class EventSearchPlansTest {
+    private static final Set<String> LARGE_TABLES = Set.of("events", "event_views");
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 10);
+    private static final StatementRecorder RECORDER = new StatementRecorder();
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    static Stream<Named<Consumer<EventRepository>>> searches() {
+        LocalDateTime now = LocalDateTime.now();
+        return Stream.of(
+                search("public, default", repository -> repository.findShortEventsByParam(
+                        publicParam(null, null, null, null, null, null, null), FIRST_PAGE)),
+                search("public, categories", repository -> repository.findShortEventsByParam(
+                        publicParam(null, Set.of(1L, 2L, 3L), null, null, null, null, null), FIRST_PAGE)),
+                search("public, paid + date range", repository -> repository.findShortEventsByParam(
+                        publicParam(null, null, true, now.plusDays(30), now.plusDays(60), null, null), FIRST_PAGE)),
+                search("public, cursor", repository -> repository.findShortEventsByParam(
+                        publicParam(null, null, null, null, null, null,
+                                new KeysetCursor(now.plusDays(100), 50_000L)), FIRST_PAGE)),
+                search("public, page 10", repository -> repository.findShortEventsByParam(
+                        publicParam(null, null, null, null, null, null, null), PageRequest.of(10, 10))),
+                search("public, text", repository -> repository.findShortEventsByParam(
+                        publicParam("word4242", null, null, null, null, null, null), FIRST_PAGE)),
+                search("public, text by relevance", repository -> repository.findShortEventsByParam(
+                        publicParam("word4242", null, null, null, null, EventPublicParam.SORT_RELEVANCE, null),
+                        FIRST_PAGE)),
+                search("public, sort by views", repository -> repository.findShortEventsByParam(
+                        publicParam(null, null, null, null, null, EventPublicParam.SORT_VIEWS, null), FIRST_PAGE)),
+                search("admin, no filters", repository -> repository.findEventsByParam(
+                        new EventAdminParam(null, null, null, null, null, 0, 10, null), FIRST_PAGE)),
+                search("admin, states", repository -> repository.findEventsByParam(
+                        new EventAdminParam(null, List.of(State.PENDING), null, null, null, 0, 10, null), FIRST_PAGE)),
+                search("admin, users + categories", repository -> repository.findEventsByParam(
+                        new EventAdminParam(List.of(1L, 2L, 3L), null, List.of(1L, 2L, 3L), null, null, 0, 10, null),
+                        FIRST_PAGE)),
+                search("initiator events", repository -> repository.findShortEventsByInitiatorId(42L, FIRST_PAGE)),
+                search("events by ids", repository -> repository.findShortEventsByIds(List.of(1L, 500L, 99_000L)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("searches")
+    void searchDoesNotScanLargeTables(Consumer<EventRepository> search) throws Exception {
+        RECORDER.clear();
+        search.accept(eventRepository);
+        List<RecordedStatement> selects = RECORDER.selects();
+        assertFalse(selects.isEmpty(), "No select was executed");
+
+        for (RecordedStatement statement : selects) {
+            JsonNode plan = explain(statement);
+            List<String> seqScans = new ArrayList<>();
+            collectSeqScans(plan, seqScans);
+            assertTrue(seqScans.isEmpty(), () -> "Seq Scan on " + seqScans + " for\n" + statement.sql()
+                    + "\n" + plan.toPrettyString());
+        }
+    }
+
+    private static Named<Consumer<EventRepository>> search(String name, Consumer<EventRepository> search) {
+        return Named.of(name, search);
+    }
+
+    private static EventPublicParam publicParam(String text, Set<Long> categories, Boolean paid,
+                                                LocalDateTime rangeStart, LocalDateTime rangeEnd,
+                                                String sort, KeysetCursor cursor) {
+        return new EventPublicParam(text, categories, paid, rangeStart, rangeEnd, null, sort, 0, 10, cursor);
+    }
+
+    private JsonNode explain(RecordedStatement statement) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            for (ParameterSetOperation parameter : statement.parameters()) {
+                parameter.getMethod().invoke(explain, parameter.getArgs());
+            }
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                return objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    private void collectSeqScans(JsonNode node, List<String> seqScans) {
+        String relation = node.path("Relation Name").asText();
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && LARGE_TABLES.contains(relation)) {
+            seqScans.add(relation);
+        }
+        node.path("Plans").forEach(child -> collectSeqScans(child, seqScans));
+    }
+
+    private record RecordedStatement(String sql, List<ParameterSetOperation> parameters) {
+    }
+
+    /**
+     * Запоминает выполненные через DataSource запросы вместе с установленными параметрами.
+     */
+    private static class StatementRecorder implements QueryExecutionListener {
+        private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            for (QueryInfo query : queryInfoList) {
+                List<ParameterSetOperation> parameters = query.getParametersList().isEmpty()
+                        ? List.of() : List.copyOf(query.getParametersList().get(0));
+                statements.add(new RecordedStatement(query.getQuery(), parameters));
+            }
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        List<RecordedStatement> selects() {
+            return statements.stream()
+                    .filter(statement -> statement.sql().stripLeading().toLowerCase().startsWith("select"))
+                    .toList();
+        }
+    }
+
+    @Configuration
+    @EntityScan(basePackages = "ru.practicum")
+    @EnableJpaRepositories(basePackageClasses = EventRepository.class)
+    static class Config {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource).listener(RECORDER).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
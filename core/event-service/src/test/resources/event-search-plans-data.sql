@@ -0,0 +1,29 @@
+-- Набор данных для EventSearchPlansTest: 100 категорий, 10000 пользователей, 100000 событий.
+-- Половина событий в прошлом, большая часть опубликована
+INSERT INTO categories (name)
+SELECT 'category ' || n FROM generate_series(1, 100) AS n;
+
+INSERT INTO locations (lat, lon)
+SELECT random() * 180 - 90, random() * 360 - 180 FROM generate_series(1, 1000);
+
+INSERT INTO events (annotation, category_id, created_on, description, event_date, location_id, paid,
+                    participant_limit, published_on, state, request_moderation, title, initiator_id)
+SELECT 'word' || (random() * 5000)::INT || ' word' || (random() * 5000)::INT,
+       1 + (random() * 99)::INT,
+       now() - make_interval(days => 400) + make_interval(secs => n * 0.1),
+       repeat('description word' || (random() * 5000)::INT || ' ', 5),
+       now() + make_interval(secs => (random() - 0.5) * 86400 * 730),
+       1 + (random() * 999)::INT,
+       random() < 0.5,
+       (random() * 3)::INT * 10,
+       now() - make_interval(days => 1),
+       CASE WHEN random() < 0.8 THEN 'PUBLISHED' WHEN random() < 0.5 THEN 'PENDING' ELSE 'CANCELED' END,
+       true,
+       'event ' || n,
+       1 + (random() * 9999)::INT
+FROM generate_series(1, 100000) AS n;
+
+INSERT INTO event_views (event_id, views, updated_on)
+SELECT id, (random() * 10000)::INT, now() FROM events WHERE state = 'PUBLISHED';
+
+ANALYZE;
@@ -0,0 +1,88 @@
+package interaction.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.FeignException;
+import interaction.config.UserClientCacheProperties;
+import interaction.model.user.output.UserShortDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ближний кэш поверх UserFeignClient. Пользователи почти не меняются, поэтому найденные
+ * UserShortDto хранятся до expireAfter, а ответы 404 запоминаются на более короткий срок
+ * и повторно выбрасываются без обращения к user-service. В getByIds в user-service уходят
+ * только отсутствующие в кэше id, пачками по {@link IdBatches#MAX_IDS_PER_REQUEST}.
+ * <p>
+ * Сигнала об изменении или удалении пользователя из user-service нет, поэтому такие изменения
+ * становятся видны после expireAfter.
+ */
+public class CachingUserClient {
+    private final UserFeignClient userClient;
+    private final Cache<Long, UserShortDto> users;
+    private final Cache<Long, FeignException.NotFound> notFound;
+
+    public CachingUserClient(UserFeignClient userClient, UserClientCacheProperties properties) {
+        this.userClient = userClient;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfter())
+                .build();
+        this.notFound = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getNotFoundExpireAfter())
+                .build();
+    }
+
+    public UserShortDto getById(Long id) {
+        UserShortDto user = users.getIfPresent(id);
+        if (user != null) {
+            return user;
+        }
+        throwIfNotFound(id);
+        try {
+            user = userClient.getById(id);
+        } catch (FeignException.NotFound e) {
+            notFound.put(id, e);
+            throw e;
+        }
+        users.put(id, user);
+        return user;
+    }
+
+    public List<UserShortDto> getByIds(List<Long> ids) {
+        List<UserShortDto> result = new ArrayList<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        // Как и user-service, возвращаем по одному пользователю на каждый различный id
+        for (Long id : new LinkedHashSet<>(ids)) {
+            UserShortDto user = users.getIfPresent(id);
+            if (user != null) {
+                result.add(user);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        // user-service отвечает 404 на всю пачку, если хотя бы одного пользователя нет
+        missing.forEach(this::throwIfNotFound);
+
+        for (List<Long> batch : IdBatches.partition(List.copyOf(missing), IdBatches.MAX_IDS_PER_REQUEST)) {
+            List<UserShortDto> loaded = userClient.getByIds(batch);
+            loaded.forEach(user -> users.put(user.getId(), user));
+            result.addAll(loaded);
+        }
+        return result;
+    }
+
+    private void throwIfNotFound(Long id) {
+        FeignException.NotFound e = notFound.getIfPresent(id);
+        if (e != null) {
+            throw e;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package interaction.client;
 
+import interaction.model.request.EventRequestCountDto;
 import interaction.model.request.Status;
 import org.springframework.stereotype.Component;
 
@@ -12,4 +13,8 @@ public class RequestClientFallbackFactory {
     public List<Object[]> getCountRequestByEventId(List<Long> eventIds, Status status) {
         return new ArrayList<>();
     }
+
+    public List<EventRequestCountDto> getRequestCountsByEventIds(List<Long> eventIds) {
+        return new ArrayList<>();
+    }
 }
\ No newline at end of file
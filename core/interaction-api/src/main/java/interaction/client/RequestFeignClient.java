@@ -1,5 +1,6 @@
 package interaction.client;
 
+import interaction.model.request.EventRequestCountDto;
 import interaction.model.request.ParticipationRequestDtoOut;
 import interaction.model.request.Status;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -22,7 +23,13 @@ public interface RequestFeignClient {
     @PutMapping("/requests/set-status")
     void setStatusRequests(@RequestParam List<Long> requestIds, @RequestParam Status status);
 
+    @PutMapping("/requests/confirm")
+    List<Long> confirmRequests(@RequestParam List<Long> requestIds, @RequestParam int participantLimit);
+
     @GetMapping("/requests/count-by-event-id")
     List<Object[]> getCountRequestByEventId(@RequestParam List<Long> eventIds,
                                             @RequestParam Status status);
+
+    @GetMapping("/requests/counts-by-event-ids")
+    List<EventRequestCountDto> getRequestCountsByEventIds(@RequestParam List<Long> eventIds);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package interaction.config;
+
+import interaction.client.CachingUserClient;
+import interaction.client.UserFeignClient;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Подключает CachingUserClient в сервисах, где включён UserFeignClient.
+ */
+@AutoConfiguration
+@ConditionalOnBean(UserFeignClient.class)
+@EnableConfigurationProperties(UserClientCacheProperties.class)
+public class UserClientCacheAutoConfiguration {
+
+    @Bean
+    public CachingUserClient cachingUserClient(UserFeignClient userFeignClient, UserClientCacheProperties properties) {
+        return new CachingUserClient(userFeignClient, properties);
+    }
+}
@@ -0,0 +1,18 @@
+package interaction.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "interaction.user-client.cache")
+public class UserClientCacheProperties {
+    private long maximumSize = 10_000;
+    private Duration expireAfter = Duration.ofMinutes(5);
+    /**
+     * Сколько помнить, что пользователя нет. Короче основного срока, чтобы созданный
+     * пользователь быстро становился видимым.
+     */
+    private Duration notFoundExpireAfter = Duration.ofSeconds(10);
+}
@@ -1,5 +1,6 @@
 package interaction.model.comment.in;
 
+import interaction.model.pagination.KeysetCursor;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,5 +12,6 @@ public class CommentPublicParam {
     Long eventId;
     Integer from = 0;
     Integer size = 10;
+    KeysetCursor cursor;
 }
 
@@ -0,0 +1,65 @@
+package interaction.model.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Позиция последней записи страницы для постраничного вывода по ключу (timestamp, id).
+ * Клиенту передаётся как непрозрачная строка в заголовке {@link #NEXT_CURSOR_HEADER}
+ * и возвращается в параметре cursor при запросе следующей страницы.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime timestamp;
+    Long id;
+
+    public String encode() {
+        String value = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Курсор на последнюю запись страницы в порядке выборки из БД. Записи страницы могли быть
+     * пересортированы после выборки, поэтому берётся крайний ключ, а не последний элемент списка.
+     */
+    public static <T> KeysetCursor ofLast(List<T> page,
+                                          Function<T, LocalDateTime> timestamp,
+                                          Function<T, Long> id,
+                                          boolean descending) {
+        Comparator<T> order = Comparator.comparing(timestamp).thenComparing(id);
+        T last = descending ? Collections.min(page, order) : Collections.max(page, order);
+        return new KeysetCursor(timestamp.apply(last), id.apply(last));
+    }
+
+    /**
+     * @return null, если курсор не передан
+     * @throws IllegalArgumentException если строка не является курсором
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package interaction.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventRequestCountDto {
+    Long eventId;
+    Long confirmed;
+    Long rejected;
+    Long pending;
+    Long canceled;
+}
@@ -1,5 +1,6 @@
 package ru.practicum.request.controller;
 
+import interaction.model.request.EventRequestCountDto;
 import interaction.model.request.ParticipationRequestDtoOut;
 import interaction.model.request.Status;
 import lombok.RequiredArgsConstructor;
@@ -76,10 +77,23 @@ public class RequestController {
         requestService.setStatusRequests(requestIds, status);
     }
 
+    @PutMapping("/requests/confirm")
+    public List<Long> confirmRequests(@RequestParam List<Long> requestIds,
+                                      @RequestParam int participantLimit) {
+        log.info("Запрос от микросервиса на подтверждение запросов с ID = {} при лимите {}", requestIds, participantLimit);
+        return requestService.confirmRequests(requestIds, participantLimit);
+    }
+
     @GetMapping("/requests/count-by-event-id")
     List<Object[]> getCountRequestByEventId(@RequestParam List<Long> eventIds,
                                             @RequestParam Status status) {
         log.info("Запрос от микросервиса на получение кол-ва запросов к событию с ID = {}", eventIds);
         return requestService.getCountRequestByEventId(eventIds, status);
     }
+
+    @GetMapping("/requests/counts-by-event-ids")
+    public List<EventRequestCountDto> getRequestCountsByEventIds(@RequestParam List<Long> eventIds) {
+        log.info("Запрос от микросервиса на получение кол-ва запросов по статусам к событиям с ID = {}", eventIds);
+        return requestService.getRequestCountsByEventIds(eventIds);
+    }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package ru.practicum.request.mapper;
 
+import interaction.model.request.EventRequestCountDto;
 import interaction.model.request.ParticipationRequestDtoOut;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import ru.practicum.request.model.EventRequestCounter;
 import ru.practicum.request.model.Request;
 
 @Mapper(componentModel = "spring")
@@ -11,4 +13,6 @@ public interface RequestMapper {
     @Mapping(source = "eventId", target = "event")
     @Mapping(source = "requesterId", target = "requester")
     ParticipationRequestDtoOut toParticipationRequestDtoOut(Request request);
+
+    EventRequestCountDto toEventRequestCountDto(EventRequestCounter counter);
 }
@@ -0,0 +1,28 @@
+package ru.practicum.request.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "event_request_counters")
+public class EventRequestCounter {
+    @Id
+    @Column(name = "event_id")
+    Long eventId;
+    @Column
+    Long confirmed;
+    @Column
+    Long rejected;
+    @Column
+    Long pending;
+    @Column
+    Long canceled;
+}
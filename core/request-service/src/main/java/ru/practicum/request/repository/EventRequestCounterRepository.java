@@ -0,0 +1,47 @@
+package ru.practicum.request.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.request.model.EventRequestCounter;
+
+import java.util.List;
+
+@Repository
+public interface EventRequestCounterRepository extends JpaRepository<EventRequestCounter, Long> {
+
+    List<EventRequestCounter> findAllByEventIdIn(List<Long> eventIds);
+
+    @Query(value = "INSERT INTO event_request_counters (event_id) VALUES (:eventId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    @Modifying
+    void createIfAbsent(@Param("eventId") Long eventId);
+
+    /**
+     * Занимает одно подтверждённое место, если лимит ещё не достигнут.
+     *
+     * @return 1, если место занято, и 0, если мест нет
+     */
+    @Query(value = "UPDATE event_request_counters SET confirmed = confirmed + 1 " +
+            "WHERE event_id = :eventId AND confirmed < :participantLimit",
+            nativeQuery = true)
+    @Modifying
+    int reserveConfirmed(@Param("eventId") Long eventId, @Param("participantLimit") long participantLimit);
+
+    @Query(value = "INSERT INTO event_request_counters AS c (event_id, confirmed, rejected, pending, canceled) " +
+            "VALUES (:eventId, :confirmed, :rejected, :pending, :canceled) " +
+            "ON CONFLICT (event_id) DO UPDATE SET " +
+            "confirmed = c.confirmed + EXCLUDED.confirmed, " +
+            "rejected = c.rejected + EXCLUDED.rejected, " +
+            "pending = c.pending + EXCLUDED.pending, " +
+            "canceled = c.canceled + EXCLUDED.canceled",
+            nativeQuery = true)
+    @Modifying
+    void addDelta(@Param("eventId") Long eventId,
+                  @Param("confirmed") long confirmed,
+                  @Param("rejected") long rejected,
+                  @Param("pending") long pending,
+                  @Param("canceled") long canceled);
+}
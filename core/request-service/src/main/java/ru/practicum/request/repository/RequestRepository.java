@@ -1,7 +1,9 @@
 package ru.practicum.request.repository;
 
 import interaction.model.request.Status;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,16 +11,11 @@ import org.springframework.stereotype.Repository;
 import ru.practicum.request.model.Request;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long> {
 
-    @Query("SELECT r.eventId, COUNT (r) " +
-            "FROM Request r " +
-            "WHERE r.eventId IN :eventIds AND r.status = :status " +
-            "GROUP BY r.eventId")
-    List<Object[]> countAllByEventIdInAndStatus(@Param("eventIds") List<Long> eventIds, @Param("status") Status status);
-
     @Query("UPDATE Request AS r " +
             "SET r.status = :status " +
             "WHERE r.id IN :ids")
@@ -29,7 +26,12 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
 
     List<Request> findByRequesterId(Long requesterId);
 
-    long countByEventIdAndStatus(Long eventId, Status status);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Request> findWithLockById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Request r WHERE r.id IN :ids ORDER BY r.id")
+    List<Request> findAllWithLockByIdIn(@Param("ids") List<Long> ids);
 
     List<Request> findAllByEventId(Long eventId);
 
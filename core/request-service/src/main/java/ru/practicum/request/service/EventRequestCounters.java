@@ -0,0 +1,72 @@
+package ru.practicum.request.service;
+
+import interaction.model.request.Status;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.request.model.Request;
+import ru.practicum.request.repository.EventRequestCounterRepository;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Поддерживает таблицу event_request_counters в актуальном состоянии. Вызывается только внутри
+ * транзакции, которая меняет заявки, поэтому счётчики не расходятся с таблицей requests.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventRequestCounters {
+    private final EventRequestCounterRepository counterRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCreated(Long eventId, Status status) {
+        Map<Status, Long> delta = new EnumMap<>(Status.class);
+        delta.put(status, 1L);
+        apply(eventId, delta);
+    }
+
+    /**
+     * Учитывает переход заявок в новый статус. Заявки должны быть прочитаны до изменения статуса.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onStatusChanged(List<Request> requests, Status newStatus) {
+        applyTransitions(requests, newStatus, true);
+    }
+
+    /**
+     * Учитывает подтверждение заявок, места под которые уже заняты через reserveConfirmed:
+     * confirmed повторно не увеличивается.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onConfirmedReserved(List<Request> requests) {
+        applyTransitions(requests, Status.CONFIRMED, false);
+    }
+
+    private void applyTransitions(List<Request> requests, Status newStatus, boolean countNewStatus) {
+        // Счётчики обновляются в порядке event_id, чтобы параллельные транзакции не блокировали друг друга
+        Map<Long, Map<Status, Long>> deltas = new TreeMap<>();
+        for (Request request : requests) {
+            if (request.getStatus() == newStatus) {
+                continue;
+            }
+            Map<Status, Long> delta = deltas.computeIfAbsent(request.getEventId(), id -> new EnumMap<>(Status.class));
+            delta.merge(request.getStatus(), -1L, Long::sum);
+            if (countNewStatus) {
+                delta.merge(newStatus, 1L, Long::sum);
+            }
+        }
+        deltas.forEach(this::apply);
+    }
+
+    private void apply(Long eventId, Map<Status, Long> delta) {
+        counterRepository.addDelta(eventId,
+                delta.getOrDefault(Status.CONFIRMED, 0L),
+                delta.getOrDefault(Status.REJECTED, 0L),
+                delta.getOrDefault(Status.PENDING, 0L),
+                delta.getOrDefault(Status.CANCELED, 0L));
+    }
+}
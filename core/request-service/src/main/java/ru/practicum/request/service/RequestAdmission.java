@@ -0,0 +1,206 @@
+package ru.practicum.request.service;
+
+import interaction.exceptions.ConflictException;
+import interaction.model.request.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.request.model.EventRequestCounter;
+import ru.practicum.request.model.Request;
+import ru.practicum.request.repository.EventRequestCounterRepository;
+import ru.practicum.request.repository.RequestRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import static java.util.function.UnaryOperator.identity;
+
+/**
+ * Допуск заявок с учётом лимита участников. Место занимается условным обновлением счётчика
+ * confirmed < limit в одной транзакции с сохранением заявки, поэтому лимит не превышается
+ * и при нескольких экземплярах сервиса. Полосатые блокировки выстраивают заявки на одно событие
+ * в очередь внутри экземпляра, а не на строке счётчика в БД, а заполненные события какое-то время
+ * отклоняются без обращения к БД.
+ */
+@Slf4j
+@Component
+public class RequestAdmission {
+    private final RequestRepository requestRepository;
+    private final EventRequestCounterRepository counterRepository;
+    private final EventRequestCounters counters;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] locks;
+    private final long fullEventTtlNanos;
+    //eventId, время до которого событие считается заполненным
+    private final Map<Long, Long> fullEvents = new ConcurrentHashMap<>();
+
+    public RequestAdmission(RequestRepository requestRepository,
+                            EventRequestCounterRepository counterRepository,
+                            EventRequestCounters counters,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${request-service.admission.lock-stripes:256}") int lockStripes,
+                            @Value("${request-service.admission.full-event-ttl:2s}") Duration fullEventTtl) {
+        this.requestRepository = requestRepository;
+        this.counterRepository = counterRepository;
+        this.counters = counters;
+        this.transactionTemplate = transactionTemplate;
+        this.fullEventTtlNanos = fullEventTtl.toNanos();
+        this.locks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Request admit(Request request, int participantLimit) {
+        Long eventId = request.getEventId();
+        if (participantLimit == 0) {
+            return save(request);
+        }
+        if (isKnownFull(eventId)) {
+            throw limitReached(eventId);
+        }
+        if (request.getStatus() != Status.CONFIRMED) {
+            // Заявка на модерацию место не занимает, но при заполненном событии не принимается
+            long confirmed = counterRepository.findById(eventId)
+                    .map(EventRequestCounter::getConfirmed)
+                    .orElse(0L);
+            if (confirmed >= participantLimit) {
+                markFull(eventId);
+                throw limitReached(eventId);
+            }
+            return save(request);
+        }
+
+        ReentrantLock lock = locks[Math.floorMod(Long.hashCode(eventId), locks.length)];
+        lock.lock();
+        try {
+            if (isKnownFull(eventId)) {
+                throw limitReached(eventId);
+            }
+            Request saved = transactionTemplate.execute(status -> {
+                counterRepository.createIfAbsent(eventId);
+                if (counterRepository.reserveConfirmed(eventId, participantLimit) == 0) {
+                    return null;
+                }
+                // Счётчик confirmed уже увеличен при резервировании места
+                return requestRepository.save(request);
+            });
+            if (saved == null) {
+                markFull(eventId);
+                throw limitReached(eventId);
+            }
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Подтверждает заявки в порядке requestIds, пока у события есть места, остальные отклоняет.
+     * Каждое место занимается тем же условным обновлением счётчика, что и в {@link #admit},
+     * поэтому параллельные подтверждения и заявки без модерации не превышают лимит.
+     * Если не удалось подтвердить ни одной заявки, ничего не меняется.
+     *
+     * @return id подтверждённых заявок, включая подтверждённые ранее
+     */
+    public List<Long> confirm(List<Long> requestIds, int participantLimit) {
+        Set<Long> overflowed = new HashSet<>();
+        List<Long> confirmedIds = transactionTemplate.execute(status -> {
+            Map<Long, Request> requests = requestRepository.findAllWithLockByIdIn(requestIds).stream()
+                    .collect(Collectors.toMap(Request::getId, identity()));
+            List<Long> confirmed = new ArrayList<>();
+            List<Request> reserved = new ArrayList<>();
+            List<Request> rejected = new ArrayList<>();
+            for (Long requestId : new LinkedHashSet<>(requestIds)) {
+                Request request = requests.get(requestId);
+                if (request == null) {
+                    continue;
+                }
+                if (request.getStatus() == Status.CONFIRMED) {
+                    // Место под заявку уже занято
+                    confirmed.add(requestId);
+                } else if (reserve(request.getEventId(), participantLimit)) {
+                    confirmed.add(requestId);
+                    reserved.add(request);
+                } else {
+                    overflowed.add(request.getEventId());
+                    rejected.add(request);
+                }
+            }
+            if (confirmed.isEmpty()) {
+                status.setRollbackOnly();
+                return List.of();
+            }
+            if (participantLimit == 0) {
+                counters.onStatusChanged(reserved, Status.CONFIRMED);
+            } else {
+                counters.onConfirmedReserved(reserved);
+            }
+            counters.onStatusChanged(rejected, Status.REJECTED);
+            setStatus(reserved, Status.CONFIRMED);
+            setStatus(rejected, Status.REJECTED);
+            return confirmed;
+        });
+        overflowed.forEach(this::markFull);
+        return confirmedIds;
+    }
+
+    /**
+     * Вызывается, когда у события освобождаются подтверждённые места.
+     */
+    public void release(Long eventId) {
+        fullEvents.remove(eventId);
+    }
+
+    private boolean reserve(Long eventId, int participantLimit) {
+        if (participantLimit == 0) {
+            return true;
+        }
+        counterRepository.createIfAbsent(eventId);
+        return counterRepository.reserveConfirmed(eventId, participantLimit) > 0;
+    }
+
+    private void setStatus(List<Request> requests, Status status) {
+        if (!requests.isEmpty()) {
+            requestRepository.setStatusForAllByIdIn(requests.stream().map(Request::getId).toList(), status);
+        }
+    }
+
+    private Request save(Request request) {
+        return transactionTemplate.execute(status -> {
+            Request savedRequest = requestRepository.save(request);
+            counters.onCreated(savedRequest.getEventId(), savedRequest.getStatus());
+            return savedRequest;
+        });
+    }
+
+    private boolean isKnownFull(Long eventId) {
+        Long until = fullEvents.get(eventId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        fullEvents.remove(eventId, until);
+        return false;
+    }
+
+    private void markFull(Long eventId) {
+        fullEvents.put(eventId, System.nanoTime() + fullEventTtlNanos);
+    }
+
+    private ConflictException limitReached(Long eventId) {
+        log.warn("Participant limit reached for event with id={}", eventId);
+        return new ConflictException(String.format("Participant limit reached for event with id=%d", eventId));
+    }
+}
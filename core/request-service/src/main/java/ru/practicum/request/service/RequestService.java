@@ -1,6 +1,7 @@
 package ru.practicum.request.service;
 
 
+import interaction.model.request.EventRequestCountDto;
 import interaction.model.request.ParticipationRequestDtoOut;
 import interaction.model.request.Status;
 
@@ -22,5 +23,9 @@ public interface RequestService {
 
     void setStatusRequests(List<Long> requestIds, Status status);
 
+    List<Long> confirmRequests(List<Long> requestIds, int participantLimit);
+
     List<Object[]> getCountRequestByEventId(List<Long> eventIds, Status status);
+
+    List<EventRequestCountDto> getRequestCountsByEventIds(List<Long> eventIds);
 }
@@ -1,11 +1,13 @@
 package ru.practicum.request.service;
 
+import interaction.client.CachingUserClient;
 import interaction.client.EventFeignClient;
-import interaction.client.UserFeignClient;
 import interaction.exceptions.ConflictException;
+import interaction.exceptions.IncorrectlyMadeRequestException;
 import interaction.exceptions.NotFoundException;
 import interaction.model.event.State;
 import interaction.model.event.output.EventFullDto;
+import interaction.model.request.EventRequestCountDto;
 import interaction.model.request.ParticipationRequestDtoOut;
 import interaction.model.request.Status;
 import interaction.model.user.output.UserShortDto;
@@ -15,6 +17,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.request.mapper.RequestMapper;
 import ru.practicum.request.model.Request;
+import ru.practicum.request.repository.EventRequestCounterRepository;
 import ru.practicum.request.repository.RequestRepository;
 
 import java.time.LocalDateTime;
@@ -29,8 +32,11 @@ public class RequestServiceImpl implements RequestService {
 
     private final RequestRepository requestRepository;
     private final EventFeignClient eventClient;
-    private final UserFeignClient userClient;
+    private final CachingUserClient userClient;
     private final RequestMapper requestMapper;
+    private final EventRequestCounterRepository counterRepository;
+    private final EventRequestCounters counters;
+    private final RequestAdmission admission;
 
     @Override
     public List<ParticipationRequestDtoOut> findByUserId(Long userId) {
@@ -66,16 +72,17 @@ public class RequestServiceImpl implements RequestService {
             request.setStatus(Status.CONFIRMED);
         }
 
-        Request savedRequest = requestRepository.save(request);
+        Request savedRequest = admission.admit(request, event.getParticipantLimit());
         log.info("Request created with id: {}", savedRequest.getId());
         return requestMapper.toParticipationRequestDtoOut(savedRequest);
     }
 
+    @Transactional
     @Override
     public ParticipationRequestDtoOut cancel(Long userId, Long requestId) {
         log.info("Cancelling request with id: {} for user with id: {}", requestId, userId);
 
-        Request request = requestRepository.findById(requestId).orElseThrow(() -> {
+        Request request = requestRepository.findWithLockById(requestId).orElseThrow(() -> {
             log.warn("Request with id={} not found", requestId);
             return new NotFoundException(String.format("Request with id=%d was not found", requestId));
         });
@@ -86,6 +93,10 @@ public class RequestServiceImpl implements RequestService {
                     "User with id=%d cannot cancel non-his request with id=%d", userId, requestId));
         }
 
+        counters.onStatusChanged(List.of(request), Status.CANCELED);
+        if (request.getStatus() == Status.CONFIRMED) {
+            admission.release(request.getEventId());
+        }
         request.setStatus(Status.CANCELED);
         Request updatedRequest = requestRepository.save(request);
 
@@ -131,12 +142,36 @@ public class RequestServiceImpl implements RequestService {
     @Transactional
     @Override
     public void setStatusRequests(List<Long> requestIds, Status status) {
+        if (status == Status.CONFIRMED) {
+            // Подтверждение без лимита обошло бы резервирование мест
+            throw new IncorrectlyMadeRequestException("Requests are confirmed through /requests/confirm");
+        }
+        List<Request> requests = requestRepository.findAllWithLockByIdIn(requestIds);
+        counters.onStatusChanged(requests, status);
+        requests.stream()
+                .filter(request -> request.getStatus() == Status.CONFIRMED)
+                .forEach(request -> admission.release(request.getEventId()));
         requestRepository.setStatusForAllByIdIn(requestIds, status);
     }
 
+    @Override
+    public List<Long> confirmRequests(List<Long> requestIds, int participantLimit) {
+        return admission.confirm(requestIds, participantLimit);
+    }
+
     @Override
     public List<Object[]> getCountRequestByEventId(List<Long> eventIds, Status status) {
-        return requestRepository.countAllByEventIdInAndStatus(eventIds, status);
+        return getRequestCountsByEventIds(eventIds).stream()
+                .map(counts -> new Object[]{counts.getEventId(), countByStatus(counts, status)})
+                .filter(row -> (Long) row[1] > 0)
+                .toList();
+    }
+
+    @Override
+    public List<EventRequestCountDto> getRequestCountsByEventIds(List<Long> eventIds) {
+        return counterRepository.findAllByEventIdIn(eventIds).stream()
+                .map(requestMapper::toEventRequestCountDto)
+                .toList();
     }
 
     private void validateRequestCreation(UserShortDto requester, EventFullDto event) {
@@ -156,13 +191,15 @@ public class RequestServiceImpl implements RequestService {
             log.warn("Cannot participate in unpublished event with id={}", event.getId());
             throw new ConflictException(String.format("Cannot participate in unpublished event with id=%d", event.getId()));
         }
+    }
 
-        if (event.getParticipantLimit() > 0 &&
-                requestRepository.countByEventIdAndStatus(event.getId(), Status.CONFIRMED) >= event.getParticipantLimit()) {
-            log.warn("Participant limit reached for event with id={}", event.getId());
-            throw new ConflictException(String.format("Participant limit reached for event with id=%d", event.getId()));
-        }
-
+    private Long countByStatus(EventRequestCountDto counts, Status status) {
+        return switch (status) {
+            case CONFIRMED -> counts.getConfirmed();
+            case REJECTED -> counts.getRejected();
+            case PENDING -> counts.getPending();
+            case CANCELED -> counts.getCanceled();
+        };
     }
 
     private UserShortDto findUserById(Long userId) {
@@ -5,4 +5,26 @@ CREATE TABLE IF NOT EXISTS requests
     requester_id BIGINT                                          NOT NULL,
     status       VARCHAR DEFAULT 'PENDING'                       NOT NULL CHECK ( status IN ('PENDING', 'REJECTED', 'CONFIRMED', 'CANCELED')),
     created      TIMESTAMP                                       NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS requests_event_id_idx ON requests (event_id);
+
+CREATE TABLE IF NOT EXISTS event_request_counters
+(
+    event_id  BIGINT PRIMARY KEY,
+    confirmed BIGINT NOT NULL DEFAULT 0,
+    rejected  BIGINT NOT NULL DEFAULT 0,
+    pending   BIGINT NOT NULL DEFAULT 0,
+    canceled  BIGINT NOT NULL DEFAULT 0
+);
+
+-- Однократное заполнение счётчиков по уже существующим заявкам
+INSERT INTO event_request_counters (event_id, confirmed, rejected, pending, canceled)
+SELECT event_id,
+       COUNT(*) FILTER (WHERE status = 'CONFIRMED'),
+       COUNT(*) FILTER (WHERE status = 'REJECTED'),
+       COUNT(*) FILTER (WHERE status = 'PENDING'),
+       COUNT(*) FILTER (WHERE status = 'CANCELED')
+FROM requests
+WHERE NOT EXISTS (SELECT 1 FROM event_request_counters)
+GROUP BY event_id;
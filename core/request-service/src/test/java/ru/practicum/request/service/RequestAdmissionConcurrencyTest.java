@@ -0,0 +1,171 @@
+package ru.practicum.request.service;
+
+import interaction.exceptions.ConflictException;
+import interaction.model.request.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.request.model.EventRequestCounter;
+import ru.practicum.request.model.Request;
+import ru.practicum.request.repository.EventRequestCounterRepository;
+import ru.practicum.request.repository.RequestRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тысячи одновременных заявок и подтверждений на одно событие через два экземпляра RequestAdmission
+ * (как у двух экземпляров сервиса с общей БД) не превышают лимит участников.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class RequestAdmissionConcurrencyTest {
+    private static final long EVENT_ID = 1L;
+    private static final int PARTICIPANT_LIMIT = 50;
+    private static final int REQUESTS = 2_000;
+    private static final int THREADS = 64;
+    private static final int CONFIRM_BATCH = 10;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private EventRequestCounterRepository counterRepository;
+
+    @Autowired
+    private EventRequestCounters counters;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void cleanUp() {
+        requestRepository.deleteAll();
+        counterRepository.deleteAll();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void confirmedRequestsNeverExceedLimit() throws Exception {
+        List<RequestAdmission> instances = List.of(newAdmission(), newAdmission());
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                RequestAdmission admission = instances.get(i % instances.size());
+                Request request = new Request(null, EVENT_ID, (long) i, Status.CONFIRMED, LocalDateTime.now());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        admission.admit(request, PARTICIPANT_LIMIT);
+                        admitted.incrementAndGet();
+                    } catch (ConflictException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(PARTICIPANT_LIMIT, admitted.get());
+        assertEquals(REQUESTS - PARTICIPANT_LIMIT, rejected.get());
+        assertEquals(PARTICIPANT_LIMIT, requestRepository.findAllByEventId(EVENT_ID).stream()
+                .filter(request -> request.getStatus() == Status.CONFIRMED)
+                .count());
+        assertEquals(PARTICIPANT_LIMIT, counterRepository.findById(EVENT_ID)
+                .map(EventRequestCounter::getConfirmed)
+                .orElse(0L));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void confirmationsNeverExceedLimit() throws Exception {
+        List<RequestAdmission> instances = List.of(newAdmission(), newAdmission());
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Request request = new Request(null, EVENT_ID, (long) i, Status.PENDING, LocalDateTime.now());
+            requestIds.add(instances.getFirst().admit(request, PARTICIPANT_LIMIT).getId());
+        }
+        AtomicInteger confirmed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int from = 0; from < REQUESTS; from += CONFIRM_BATCH) {
+                RequestAdmission admission = instances.get(from / CONFIRM_BATCH % instances.size());
+                List<Long> batch = requestIds.subList(from, from + CONFIRM_BATCH);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    confirmed.addAndGet(admission.confirm(batch, PARTICIPANT_LIMIT).size());
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(PARTICIPANT_LIMIT, confirmed.get());
+        assertEquals(PARTICIPANT_LIMIT, requestRepository.findAllByEventId(EVENT_ID).stream()
+                .filter(request -> request.getStatus() == Status.CONFIRMED)
+                .count());
+        EventRequestCounter counter = counterRepository.findById(EVENT_ID).orElseThrow();
+        assertEquals(PARTICIPANT_LIMIT, counter.getConfirmed());
+        assertEquals(requestRepository.findAllByEventId(EVENT_ID).stream()
+                .filter(request -> request.getStatus() == Status.PENDING)
+                .count(), counter.getPending());
+    }
+
+    private RequestAdmission newAdmission() {
+        return new RequestAdmission(requestRepository, counterRepository, counters, transactionTemplate,
+                256, Duration.ofSeconds(2));
+    }
+
+    @Configuration
+    @EntityScan(basePackageClasses = Request.class)
+    @EnableJpaRepositories(basePackageClasses = RequestRepository.class)
+    @Import(EventRequestCounters.class)
+    static class Config {
+    }
+}
@@ -0,0 +1,84 @@
+package gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Условный GET для публичных маршрутов: у успешного ответа появляется ETag (от сервиса
+ * или слабый, по содержимому тела), а при совпадении с If-None-Match клиент получает
+ * 304 без тела. Стоит перед LocalResponseCache, поэтому работает и для ответов из кэша.
+ */
+@Component
+public class ConditionalGetGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            ServerHttpResponseDecorator response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    HttpStatusCode status = getStatusCode();
+                    if (status != null && status.value() != HttpStatus.OK.value()) {
+                        return super.writeWith(body);
+                    }
+                    return DataBufferUtils.join(body)
+                            .flatMap(joined -> {
+                                byte[] bytes = new byte[joined.readableByteCount()];
+                                joined.read(bytes);
+                                DataBufferUtils.release(joined);
+                                return write(bytes);
+                            })
+                            .switchIfEmpty(Mono.defer(() -> super.writeWith(Mono.empty())));
+                }
+
+                private Mono<Void> write(byte[] bytes) {
+                    HttpHeaders headers = getHeaders();
+                    String etag = headers.getETag();
+                    if (etag == null) {
+                        etag = "W/\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                        headers.setETag(etag);
+                    }
+                    if (matches(request.getHeaders().getIfNoneMatch(), etag)) {
+                        setStatusCode(HttpStatus.NOT_MODIFIED);
+                        headers.remove(HttpHeaders.CONTENT_LENGTH);
+                        headers.remove(HttpHeaders.CONTENT_TYPE);
+                        return setComplete();
+                    }
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                }
+            };
+            return chain.filter(exchange.mutate().response(response).build());
+        };
+    }
+
+    /**
+     * Слабое сравнение, как требует RFC 9110 для If-None-Match.
+     */
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaque = stripWeak(etag);
+        return ifNoneMatch.stream()
+                .anyMatch(candidate -> candidate.equals("*") || stripWeak(candidate).equals(opaque));
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
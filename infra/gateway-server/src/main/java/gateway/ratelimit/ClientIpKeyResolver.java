@@ -0,0 +1,26 @@
+package gateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Ключ лимита — IP клиента. Шлюз стоит на краю, поэтому берём адрес соединения,
+ * а не X-Forwarded-For, который клиент может подставить сам.
+ */
+@Component(ClientIpKeyResolver.BEAN_NAME)
+public class ClientIpKeyResolver implements KeyResolver {
+    public static final String BEAN_NAME = "clientIpKeyResolver";
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        if (address == null || address.getAddress() == null) {
+            return Mono.empty();
+        }
+        return Mono.just(address.getAddress().getHostAddress());
+    }
+}
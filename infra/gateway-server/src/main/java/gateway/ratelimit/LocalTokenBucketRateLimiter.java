@@ -0,0 +1,118 @@
+package gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Token bucket в памяти шлюза для фильтра RequestRateLimiter, без Redis. Корзина заводится
+ * на пару (маршрут, ключ клиента) и наполняется со скоростью replenishRate токенов в секунду
+ * до burstCapacity. Лимиты задаются в аргументах фильтра маршрута с префиксом local-rate-limiter.
+ * Счётчики не разделяются между экземплярами шлюза: на каждом действует свой лимит.
+ */
+@Component(LocalTokenBucketRateLimiter.BEAN_NAME)
+public class LocalTokenBucketRateLimiter extends AbstractRateLimiter<LocalTokenBucketRateLimiter.Config> {
+    public static final String BEAN_NAME = "localRateLimiter";
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+    private final MeterRegistry meterRegistry;
+
+    public LocalTokenBucketRateLimiter(ConfigurationService configurationService, MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId);
+        }
+        TokenBucket bucket = buckets.get(routeId + ":" + id,
+                key -> new TokenBucket(config.getBurstCapacity(), System.nanoTime()));
+        long waitNanos = bucket.tryConsume(config, System.nanoTime());
+
+        Map<String, String> headers = Map.of(
+                "X-RateLimit-Remaining", String.valueOf(bucket.remaining()),
+                "X-RateLimit-Burst-Capacity", String.valueOf(config.getBurstCapacity()),
+                "X-RateLimit-Replenish-Rate", String.valueOf(config.getReplenishRate()));
+        if (waitNanos == 0) {
+            return Mono.just(new Response(true, headers));
+        }
+        throttled(routeId).increment();
+        long retryAfterSeconds = Math.max(1, Duration.ofNanos(waitNanos).toSeconds() + 1);
+        return Mono.just(new Response(false, Map.of(
+                HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds),
+                "X-RateLimit-Remaining", "0",
+                "X-RateLimit-Burst-Capacity", String.valueOf(config.getBurstCapacity()),
+                "X-RateLimit-Replenish-Rate", String.valueOf(config.getReplenishRate()))));
+    }
+
+    private Counter throttled(String routeId) {
+        return Counter.builder("gateway.rate-limiter.throttled")
+                .description("Requests rejected with 429 by the local rate limiter")
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    @Data
+    @Validated
+    public static class Config {
+        /**
+         * Токенов в секунду, то есть допустимая средняя частота запросов одного клиента.
+         */
+        @Min(1)
+        private int replenishRate = 10;
+        /**
+         * Размер корзины: сколько запросов клиент может сделать подряд после паузы.
+         */
+        @Min(1)
+        private int burstCapacity = 20;
+        @Min(1)
+        private int requestedTokens = 1;
+    }
+
+    private static class TokenBucket {
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        /**
+         * @return 0, если токены списаны, иначе сколько наносекунд ждать до появления нужного числа токенов
+         */
+        synchronized long tryConsume(Config config, long now) {
+            double perNano = config.getReplenishRate() / 1_000_000_000d;
+            tokens = Math.min(config.getBurstCapacity(), tokens + (now - refilledAt) * perNano);
+            refilledAt = now;
+            if (tokens >= config.getRequestedTokens()) {
+                tokens -= config.getRequestedTokens();
+                return 0;
+            }
+            return (long) Math.ceil((config.getRequestedTokens() - tokens) / perNano);
+        }
+
+        synchronized long remaining() {
+            return (long) tokens;
+        }
+    }
+}
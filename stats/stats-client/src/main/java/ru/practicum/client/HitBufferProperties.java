@@ -0,0 +1,30 @@
+package ru.practicum.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "stats-client.hit-buffer")
+public class HitBufferProperties {
+    /**
+     * Максимальное количество хитов, ожидающих отправки в stats-server.
+     */
+    private int capacity = 10_000;
+    /**
+     * Размер пачки, при накоплении которой отправка запускается не дожидаясь таймера.
+     */
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+    /**
+     * Сколько ждать освобождения места в буфере при политике BLOCK, после чего хит отбрасывается.
+     */
+    private Duration blockTimeout = Duration.ofMillis(50);
+
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        BLOCK
+    }
+}
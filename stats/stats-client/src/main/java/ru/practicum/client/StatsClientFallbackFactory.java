@@ -9,7 +9,8 @@ import java.util.List;
 @Component
 public class StatsClientFallbackFactory {
 
-    public List<GetStatisticDto> getStatistic(String start, String end, List<String> uris, Boolean unique) {
+    public List<GetStatisticDto> getStatistic(String start, String end, List<String> uris, Boolean unique,
+                                              Boolean approximate) {
         return new ArrayList<>();
     }
 }
\ No newline at end of file
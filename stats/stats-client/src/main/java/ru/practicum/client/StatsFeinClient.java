@@ -15,11 +15,16 @@ public interface StatsFeinClient {
     @ResponseStatus(HttpStatus.CREATED)
     void addHit(@RequestBody StatisticDto statisticDto);
 
+    @PostMapping("/hit/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    void addHits(@RequestBody List<StatisticDto> statisticDtos);
+
     @GetMapping("/stats")
     List<GetStatisticDto> getStatistic(
             @RequestParam String start,
             @RequestParam String end,
             @RequestParam(required = false, defaultValue = "") List<String> uris,
-            @RequestParam(required = false, defaultValue = "false") Boolean unique
+            @RequestParam(required = false, defaultValue = "false") Boolean unique,
+            @RequestParam(required = false, defaultValue = "false") Boolean approximate
     );
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package ru.practicum.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.dto.in.StatisticDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Копит хиты в памяти и отправляет их в stats-server пачками через {@code POST /hit/batch},
+ * чтобы запросы к публичным эндпоинтам не ждали ответа сервиса статистики.
+ */
+@Slf4j
+public class StatsHitPublisher {
+    private final StatsFeinClient statsClient;
+    private final HitBufferProperties properties;
+
+    private final Queue<StatisticDto> buffer = new ConcurrentLinkedQueue<>();
+    private final Semaphore freeSlots;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    private final AtomicLong publishedHits = new AtomicLong();
+    private final AtomicLong flushedHits = new AtomicLong();
+    private final AtomicLong droppedHits = new AtomicLong();
+
+    public StatsHitPublisher(StatsFeinClient statsClient, HitBufferProperties properties) {
+        this.statsClient = statsClient;
+        this.properties = properties;
+        this.freeSlots = new Semaphore(properties.getCapacity());
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-hit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void publish(StatisticDto hit) {
+        if (!reserveSlot()) {
+            droppedHits.incrementAndGet();
+            log.warn("Hit buffer is full, hit with uri {} was dropped", hit.getUri());
+            return;
+        }
+        buffer.add(hit);
+        publishedHits.incrementAndGet();
+
+        if (freeSlots.availablePermits() <= properties.getCapacity() - properties.getBatchSize()
+                && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushSafely);
+        }
+    }
+
+    public long getPublishedHits() {
+        return publishedHits.get();
+    }
+
+    public long getFlushedHits() {
+        return flushedHits.get();
+    }
+
+    public long getDroppedHits() {
+        return droppedHits.get();
+    }
+
+    public int getBufferedHits() {
+        return properties.getCapacity() - freeSlots.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("Hit publisher stopped: flushed {}, dropped {}", flushedHits.get(), droppedHits.get());
+    }
+
+    private boolean reserveSlot() {
+        if (properties.getOverflowPolicy() == HitBufferProperties.OverflowPolicy.BLOCK) {
+            try {
+                return freeSlots.tryAcquire(properties.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        while (!freeSlots.tryAcquire()) {
+            // Вытесняем самый старый хит: его слот переходит новому
+            if (buffer.poll() != null) {
+                droppedHits.incrementAndGet();
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private void flushSafely() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Unexpected error while flushing hits", e);
+        }
+    }
+
+    private void flush() {
+        List<StatisticDto> batch = drain();
+        while (!batch.isEmpty()) {
+            try {
+                statsClient.addHits(batch);
+                flushedHits.addAndGet(batch.size());
+                log.debug("Flushed {} hits to stats-server", batch.size());
+            } catch (Exception e) {
+                log.warn("Failed to send {} hits to stats-server, will retry: {}", batch.size(), e.getMessage());
+                requeue(batch);
+                return;
+            }
+            batch = drain();
+        }
+    }
+
+    /**
+     * Возвращает неотправленную пачку в буфер до следующего тика. Хиты, которым не хватило места,
+     * отбрасываются так же, как при переполнении буфера новыми хитами.
+     */
+    private void requeue(List<StatisticDto> batch) {
+        int dropped = 0;
+        for (StatisticDto hit : batch) {
+            if (freeSlots.tryAcquire()) {
+                buffer.add(hit);
+            } else {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            droppedHits.addAndGet(dropped);
+            log.warn("Hit buffer is full, {} hits were dropped after failed send", dropped);
+        }
+    }
+
+    private List<StatisticDto> drain() {
+        List<StatisticDto> batch = new ArrayList<>(properties.getBatchSize());
+        StatisticDto hit;
+        while (batch.size() < properties.getBatchSize() && (hit = buffer.poll()) != null) {
+            freeSlots.release();
+            batch.add(hit);
+        }
+        return batch;
+    }
+}
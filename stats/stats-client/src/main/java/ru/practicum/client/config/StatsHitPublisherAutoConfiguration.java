@@ -0,0 +1,23 @@
+package ru.practicum.client.config;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import ru.practicum.client.HitBufferProperties;
+import ru.practicum.client.StatsFeinClient;
+import ru.practicum.client.StatsHitPublisher;
+
+/**
+ * Подключает StatsHitPublisher только в сервисах, где включён StatsFeinClient.
+ */
+@AutoConfiguration
+@ConditionalOnBean(StatsFeinClient.class)
+@EnableConfigurationProperties(HitBufferProperties.class)
+public class StatsHitPublisherAutoConfiguration {
+
+    @Bean
+    public StatsHitPublisher statsHitPublisher(StatsFeinClient statsClient, HitBufferProperties properties) {
+        return new StatsHitPublisher(statsClient, properties);
+    }
+}
@@ -27,15 +27,25 @@ public class StatisticController implements StatsFeinClient {
         service.addHit(statisticDto);
     }
 
+    @Override
+    @PostMapping("/hit/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void addHits(@RequestBody List<StatisticDto> statisticDtos) {
+        log.info("POST /hit/batch - Adding {} hits", statisticDtos.size());
+        service.addHits(statisticDtos);
+    }
+
     @Override
     @GetMapping("/stats")
     public List<GetStatisticDto> getStatistic(
             @RequestParam String start,
             @RequestParam String end,
             @RequestParam(required = false, defaultValue = "") List<String> uris,
-            @RequestParam(required = false, defaultValue = "false") Boolean unique
+            @RequestParam(required = false, defaultValue = "false") Boolean unique,
+            @RequestParam(required = false, defaultValue = "false") Boolean approximate
     ) {
-        log.info("GET /stats - Getting statistic for uris: {} from: {} to {}, unique: {}", uris, start, end, unique);
-        return service.getStatistic(start, end, uris, unique);
+        log.info("GET /stats - Getting statistic for uris: {} from: {} to {}, unique: {}, approximate: {}",
+                uris, start, end, unique, approximate);
+        return service.getStatistic(start, end, uris, unique, approximate);
     }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package ru.practicum.server.model;
+
+/**
+ * Оценка числа уникальных ip по регистрам HyperLogLog. Регистры заполняются в БД функциями
+ * stats_hll_register/stats_hll_rank (см. db/migration/V1__init.sql), здесь они только объединяются и оцениваются.
+ */
+public class HyperLogLog {
+    public static final int PRECISION = 12;
+    public static final int REGISTERS = 1 << PRECISION;
+    /**
+     * Стандартная относительная ошибка оценки: 1.04 / sqrt(4096) ≈ 1.6%.
+     */
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    public void merge(int register, int rank) {
+        if (rank > registers[register]) {
+            registers[register] = (byte) rank;
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte rank : registers) {
+            sum += 1.0 / (1L << rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // На малых мощностях точнее линейный подсчёт по пустым регистрам
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.server.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+@RequiredArgsConstructor
+public enum RollupGranularity {
+    MINUTE("statistics_minute_rollup", "statistics_minute_sketch", "minute", ChronoUnit.MINUTES),
+    HOUR("statistics_hour_rollup", "statistics_hour_sketch", "hour", ChronoUnit.HOURS);
+
+    private final String table;
+    private final String sketchTable;
+    /**
+     * Единица для date_trunc в PostgreSQL.
+     */
+    private final String truncUnit;
+    private final ChronoUnit unit;
+
+    public LocalDateTime floor(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+
+    public LocalDateTime ceil(LocalDateTime dateTime) {
+        LocalDateTime floor = floor(dateTime);
+        return floor.equals(dateTime) ? floor : floor.plus(1, unit);
+    }
+}
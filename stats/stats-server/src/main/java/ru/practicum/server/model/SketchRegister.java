@@ -0,0 +1,11 @@
+package ru.practicum.server.model;
+
+import lombok.Value;
+
+@Value
+public class SketchRegister {
+    String app;
+    String uri;
+    int register;
+    int rank;
+}
@@ -0,0 +1,56 @@
+package ru.practicum.server.service;
+
+import lombok.Value;
+import ru.practicum.server.model.RollupGranularity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Часть диапазона запроса статистики: целые часы читаются из почасовых агрегатов,
+ * целые минуты из поминутных, а неполные минуты на краях (granularity == null) из сырых хитов.
+ */
+@Value
+class StatisticRangePart {
+    RollupGranularity granularity;
+    LocalDateTime from;
+    LocalDateTime to;
+
+    boolean isRaw() {
+        return granularity == null;
+    }
+
+    static List<StatisticRangePart> split(LocalDateTime start, LocalDateTime end) {
+        // Время хитов хранится с точностью до секунды, поэтому [start, end] совпадает с [start, end + 1s)
+        LocalDateTime to = end.plusSeconds(1);
+        List<StatisticRangePart> parts = new ArrayList<>();
+
+        LocalDateTime firstMinute = RollupGranularity.MINUTE.ceil(start);
+        LocalDateTime lastMinute = RollupGranularity.MINUTE.floor(to);
+        if (!firstMinute.isBefore(lastMinute)) {
+            add(parts, null, start, to);
+            return parts;
+        }
+        add(parts, null, start, firstMinute);
+        add(parts, null, lastMinute, to);
+
+        LocalDateTime firstHour = RollupGranularity.HOUR.ceil(firstMinute);
+        LocalDateTime lastHour = RollupGranularity.HOUR.floor(lastMinute);
+        if (firstHour.isBefore(lastHour)) {
+            add(parts, RollupGranularity.MINUTE, firstMinute, firstHour);
+            add(parts, RollupGranularity.HOUR, firstHour, lastHour);
+            add(parts, RollupGranularity.MINUTE, lastHour, lastMinute);
+        } else {
+            add(parts, RollupGranularity.MINUTE, firstMinute, lastMinute);
+        }
+        return parts;
+    }
+
+    private static void add(List<StatisticRangePart> parts, RollupGranularity granularity,
+                            LocalDateTime from, LocalDateTime to) {
+        if (from.isBefore(to)) {
+            parts.add(new StatisticRangePart(granularity, from, to));
+        }
+    }
+}
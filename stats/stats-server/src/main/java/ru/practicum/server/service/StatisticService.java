@@ -8,5 +8,7 @@ import java.util.List;
 public interface StatisticService {
     void addHit(StatisticDto statisticDto);
 
-    List<GetStatisticDto> getStatistic(String start, String end, List<String> uris, Boolean unique);
+    void addHits(List<StatisticDto> statisticDtos);
+
+    List<GetStatisticDto> getStatistic(String start, String end, List<String> uris, Boolean unique, Boolean approximate);
 }
@@ -3,15 +3,25 @@ package ru.practicum.server.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.dto.in.StatisticDto;
 import ru.practicum.dto.output.GetStatisticDto;
 import ru.practicum.server.mapper.StatisticMapper;
+import ru.practicum.server.model.HyperLogLog;
+import ru.practicum.server.model.SketchRegister;
 import ru.practicum.server.model.Statistic;
+import ru.practicum.server.storage.StatisticBatchRepository;
 import ru.practicum.server.storage.StatisticRepository;
+import ru.practicum.server.storage.StatisticRollupRepository;
+import ru.practicum.server.storage.StatisticSketchRepository;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -20,16 +30,34 @@ public class StatisticServiceImpl implements StatisticService {
 
     private final StatisticRepository repository;
     private final StatisticMapper mapper;
+    private final StatisticBatchRepository batchRepository;
+    private final StatisticRollupRepository rollupRepository;
+    private final StatisticSketchRepository sketchRepository;
 
     @Override
+    @Transactional
     public void addHit(StatisticDto statisticDto) {
         Statistic statisticToSave = mapper.toStatistic(statisticDto);
         repository.save(statisticToSave);
+        rollupRepository.addHits(List.of(statisticDto));
+        sketchRepository.addHits(List.of(statisticDto));
         log.info("Hit with uri {} was saved", statisticDto.getUri());
     }
 
     @Override
-    public List<GetStatisticDto> getStatistic(String start, String end, List<String> uris, Boolean unique) {
+    @Transactional
+    public void addHits(List<StatisticDto> statisticDtos) {
+        if (statisticDtos.isEmpty()) {
+            return;
+        }
+        batchRepository.saveAll(statisticDtos);
+        rollupRepository.addHits(statisticDtos);
+        sketchRepository.addHits(statisticDtos);
+        log.info("{} hits were saved", statisticDtos.size());
+    }
+
+    @Override
+    public List<GetStatisticDto> getStatistic(String start, String end, List<String> uris, Boolean unique, Boolean approximate) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         List<GetStatisticDto> statistics;
 
@@ -39,26 +67,81 @@ public class StatisticServiceImpl implements StatisticService {
             throw new IllegalArgumentException("Start date cannot be after end date");
         }
 
+        if (!Boolean.TRUE.equals(unique)) {
+            statistics = getHitsFromRollups(dtStart, dtEnd, uris);
+            log.info("Retrieved {} statistics from rollups for uris: {} from {} to {}", statistics.size(), uris, start, end);
+            return statistics;
+        }
+
+        if (Boolean.TRUE.equals(approximate)) {
+            statistics = getUniqueHitsFromSketches(dtStart, dtEnd, uris);
+            log.info("Estimated {} unique statistics for uris: {} from {} to {}", statistics.size(), uris, start, end);
+            return statistics;
+        }
+
         if (uris.isEmpty()) {
 
-            statistics = repository.findHitsByTimestampBetween(
+            statistics = repository.findUniqueHitsByTimestampBetween(
                     dtStart,
-                    dtEnd,
-                    unique
+                    dtEnd
             );
             log.info("Retrieved {} statistics for all uris from {} to {}, unique IPs: {}", statistics.size(), start, end, unique);
 
         } else {
 
-            statistics = repository.findHitsByUriInAndTimestampBetween(
+            statistics = repository.findUniqueHitsByUriInAndTimestampBetween(
                     uris,
                     dtStart,
-                    dtEnd,
-                    unique
+                    dtEnd
             );
             log.info("Retrieved {} statistics for uris: {} from {} to {}, unique IPs: {}", statistics.size(), uris, start, end, unique);
         }
 
         return statistics;
     }
-}
\ No newline at end of file
+
+    private List<GetStatisticDto> getHitsFromRollups(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        Map<String, Map<String, Long>> hits = new HashMap<>();
+        for (StatisticRangePart part : StatisticRangePart.split(start, end)) {
+            List<GetStatisticDto> partHits;
+            if (part.isRaw()) {
+                partHits = uris.isEmpty()
+                        ? repository.countHitsByTimestampRange(part.getFrom(), part.getTo())
+                        : repository.countHitsByUriInAndTimestampRange(uris, part.getFrom(), part.getTo());
+            } else {
+                partHits = rollupRepository.findHits(part.getGranularity(), part.getFrom(), part.getTo(), uris);
+            }
+            for (GetStatisticDto dto : partHits) {
+                hits.computeIfAbsent(dto.getApp(), app -> new HashMap<>())
+                        .merge(dto.getUri(), dto.getHits(), Long::sum);
+            }
+        }
+        return toSortedList(hits);
+    }
+
+    private List<GetStatisticDto> getUniqueHitsFromSketches(LocalDateTime start, LocalDateTime end, List<String> uris) {
+        Map<String, Map<String, HyperLogLog>> sketches = new HashMap<>();
+        for (StatisticRangePart part : StatisticRangePart.split(start, end)) {
+            List<SketchRegister> registers = part.isRaw()
+                    ? sketchRepository.findRawRegisters(part.getFrom(), part.getTo(), uris)
+                    : sketchRepository.findRegisters(part.getGranularity(), part.getFrom(), part.getTo(), uris);
+            for (SketchRegister register : registers) {
+                sketches.computeIfAbsent(register.getApp(), app -> new HashMap<>())
+                        .computeIfAbsent(register.getUri(), uri -> new HyperLogLog())
+                        .merge(register.getRegister(), register.getRank());
+            }
+        }
+
+        Map<String, Map<String, Long>> hits = new HashMap<>();
+        sketches.forEach((app, byUri) -> byUri.forEach((uri, sketch) ->
+                hits.computeIfAbsent(app, key -> new HashMap<>()).put(uri, sketch.estimate())));
+        return toSortedList(hits);
+    }
+
+    private List<GetStatisticDto> toSortedList(Map<String, Map<String, Long>> hits) {
+        List<GetStatisticDto> statistics = new ArrayList<>();
+        hits.forEach((app, byUri) -> byUri.forEach((uri, count) -> statistics.add(new GetStatisticDto(app, uri, count))));
+        statistics.sort(Comparator.comparing(GetStatisticDto::getHits).reversed());
+        return statistics;
+    }
+}
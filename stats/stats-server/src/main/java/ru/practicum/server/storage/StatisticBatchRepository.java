@@ -0,0 +1,35 @@
+package ru.practicum.server.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.dto.in.StatisticDto;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Пакетная запись хитов в обход JPA: с IDENTITY-ключом Hibernate не умеет батчить вставки,
+ * а JDBC-батч вместе с {@code reWriteBatchedInserts=true} драйвера PostgreSQL превращается
+ * в многострочные INSERT.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatisticBatchRepository {
+    private static final String INSERT_SQL = "INSERT INTO statistics (app, uri, ip, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${stats-server.hits.jdbc-batch-size:1000}")
+    private int batchSize;
+
+    public void saveAll(List<StatisticDto> hits) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, hits, batchSize, (ps, hit) -> {
+            ps.setString(1, hit.getApp());
+            ps.setString(2, hit.getUri());
+            ps.setString(3, hit.getIp());
+            ps.setTimestamp(4, Timestamp.valueOf(hit.getTimestamp()));
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.server.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.server.model.RollupGranularity;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Ведёт посуточные секции таблицы statistics: создаёт их заранее и отсоединяет или удаляет
+ * секции старше срока хранения. Хиты вне созданных секций попадают в statistics_default.
+ * Агрегаты и sketch-регистры за тот же период удаляются при любом действии: они выводятся
+ * из сырых хитов и без них не должны отвечать на запросы за период, которого уже нет в statistics.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatisticPartitionManager {
+    private static final String PARTITION_PREFIX = "statistics_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StatisticPartitionProperties properties;
+
+    @PostConstruct
+    public void init() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${stats-server.partitioning.cron:0 5 0 * * *}")
+    public synchronized void maintainPartitions() {
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS statistics_default PARTITION OF statistics DEFAULT");
+        createPartitions(today.minusDays(1), today.plusDays(properties.getPremakeDays()));
+        if (properties.getRetentionDays() > 0) {
+            applyRetention(today.minusDays(properties.getRetentionDays()));
+        }
+    }
+
+    private void createPartitions(LocalDate from, LocalDate to) {
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(day) +
+                        " PARTITION OF statistics FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+            } catch (DataAccessException e) {
+                // Например, если в statistics_default уже есть хиты за этот день
+                log.warn("Failed to create statistics partition for {}: {}", day, e.getMessage());
+            }
+        }
+    }
+
+    private void applyRetention(LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'statistics'::regclass", String.class);
+
+        for (String partition : partitions) {
+            LocalDate day = parseDay(partition);
+            if (day == null || !day.isBefore(cutoff)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE statistics DETACH PARTITION " + partition);
+            if (properties.getRetentionAction() == StatisticPartitionProperties.RetentionAction.DROP) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+            log.info("Statistics partition {} was {}", partition, properties.getRetentionAction());
+        }
+
+        if (properties.getRetentionAction() == StatisticPartitionProperties.RetentionAction.DROP) {
+            int deleted = jdbcTemplate.update("DELETE FROM statistics_default WHERE timestamp < ?", Date.valueOf(cutoff));
+            if (deleted > 0) {
+                log.info("{} expired hits were deleted from statistics_default", deleted);
+            }
+        }
+
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            deleteBuckets(granularity.getTable(), cutoff);
+            deleteBuckets(granularity.getSketchTable(), cutoff);
+        }
+    }
+
+    /**
+     * Удаляет бакеты старше cutoff порциями, чтобы не держать долгую транзакцию и блокировки на таблице.
+     */
+    private void deleteBuckets(String table, LocalDate cutoff) {
+        int batchSize = properties.getRetentionBatchSize();
+        long deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update("DELETE FROM " + table + " WHERE ctid IN " +
+                    "(SELECT ctid FROM " + table + " WHERE bucket < ? LIMIT ?)", Date.valueOf(cutoff), batchSize);
+            deleted += batch;
+        } while (batch == batchSize);
+        if (deleted > 0) {
+            log.info("{} expired rows were deleted from {}", deleted, table);
+        }
+    }
+
+    private String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+
+    private LocalDate parseDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
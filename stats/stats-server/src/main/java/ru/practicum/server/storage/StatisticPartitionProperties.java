@@ -0,0 +1,32 @@
+package ru.practicum.server.storage;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "stats-server.partitioning")
+public class StatisticPartitionProperties {
+    /**
+     * На сколько дней вперёд заранее создаются секции таблицы statistics.
+     */
+    private int premakeDays = 7;
+    /**
+     * Сколько дней хранить хиты, их агрегаты и sketch-регистры; 0 — хранить без ограничений.
+     */
+    private int retentionDays = 0;
+    private RetentionAction retentionAction = RetentionAction.DETACH;
+    /**
+     * Сколько строк агрегатов и sketch-регистров удаляется за один запрос при очистке.
+     */
+    private int retentionBatchSize = 10_000;
+
+    public enum RetentionAction {
+        /**
+         * Секция отсоединяется и остаётся в БД отдельной таблицей, например для архивации.
+         */
+        DETACH,
+        DROP
+    }
+}
@@ -11,29 +11,45 @@ import java.util.List;
 
 public interface StatisticRepository extends JpaRepository<Statistic, Integer> {
 
-    @Query("SELECT new ru.practicum.dto.output.GetStatisticDto(s.app, s.uri, " +
-            "CASE WHEN :unique = true THEN COUNT(DISTINCT s.ip) ELSE COUNT(s.ip) END) " +
+    @Query("SELECT new ru.practicum.dto.output.GetStatisticDto(s.app, s.uri, COUNT(DISTINCT s.ip)) " +
             "FROM Statistic s " +
             "WHERE s.uri IN :uris " +
             "AND s.timestamp BETWEEN :start AND :end " +
             "GROUP BY s.app, s.uri " +
-            "ORDER BY COUNT(s.ip) DESC")
-    List<GetStatisticDto> findHitsByUriInAndTimestampBetween(
+            "ORDER BY COUNT(DISTINCT s.ip) DESC")
+    List<GetStatisticDto> findUniqueHitsByUriInAndTimestampBetween(
             @Param("uris") List<String> uris,
             @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end,
-            @Param("unique") Boolean unique
+            @Param("end") LocalDateTime end
     );
 
-    @Query("SELECT new ru.practicum.dto.output.GetStatisticDto(s.app, s.uri, " +
-            "CASE WHEN :unique = true THEN COUNT(DISTINCT s.ip) ELSE COUNT(s.ip) END) " +
+    @Query("SELECT new ru.practicum.dto.output.GetStatisticDto(s.app, s.uri, COUNT(DISTINCT s.ip)) " +
             "FROM Statistic s " +
             "WHERE s.timestamp BETWEEN :start AND :end " +
             "GROUP BY s.app, s.uri " +
-            "ORDER BY COUNT(s.ip) DESC")
-    List<GetStatisticDto> findHitsByTimestampBetween(
+            "ORDER BY COUNT(DISTINCT s.ip) DESC")
+    List<GetStatisticDto> findUniqueHitsByTimestampBetween(
             @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end,
-            @Param("unique") Boolean unique
+            @Param("end") LocalDateTime end
     );
-}
\ No newline at end of file
+
+    @Query("SELECT new ru.practicum.dto.output.GetStatisticDto(s.app, s.uri, COUNT(s.ip)) " +
+            "FROM Statistic s " +
+            "WHERE s.uri IN :uris " +
+            "AND s.timestamp >= :from AND s.timestamp < :to " +
+            "GROUP BY s.app, s.uri")
+    List<GetStatisticDto> countHitsByUriInAndTimestampRange(
+            @Param("uris") List<String> uris,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    @Query("SELECT new ru.practicum.dto.output.GetStatisticDto(s.app, s.uri, COUNT(s.ip)) " +
+            "FROM Statistic s " +
+            "WHERE s.timestamp >= :from AND s.timestamp < :to " +
+            "GROUP BY s.app, s.uri")
+    List<GetStatisticDto> countHitsByTimestampRange(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+}
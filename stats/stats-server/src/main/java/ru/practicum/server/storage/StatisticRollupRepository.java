@@ -0,0 +1,88 @@
+package ru.practicum.server.storage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.dto.in.StatisticDto;
+import ru.practicum.dto.output.GetStatisticDto;
+import ru.practicum.server.model.RollupGranularity;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Поминутные и почасовые агрегаты хитов по (app, uri). Обновляются в той же транзакции,
+ * что и запись сырых хитов, поэтому всегда согласованы с таблицей statistics.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatisticRollupRepository {
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::getUri)
+            .thenComparing(RollupKey::getBucket)
+            .thenComparing(RollupKey::getApp);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void addHits(List<StatisticDto> hits) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Map<RollupKey, Long> counts = hits.stream()
+                    .collect(Collectors.groupingBy(
+                            hit -> new RollupKey(hit.getApp(), hit.getUri(), granularity.floor(hit.getTimestamp())),
+                            Collectors.counting()));
+
+            // Одинаковый порядок ключей во всех транзакциях исключает взаимные блокировки при upsert
+            MapSqlParameterSource[] batch = counts.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey(KEY_ORDER))
+                    .map(entry -> new MapSqlParameterSource()
+                            .addValue("app", entry.getKey().getApp())
+                            .addValue("uri", entry.getKey().getUri())
+                            .addValue("bucket", Timestamp.valueOf(entry.getKey().getBucket()))
+                            .addValue("hits", entry.getValue()))
+                    .toArray(MapSqlParameterSource[]::new);
+
+            jdbcTemplate.batchUpdate("INSERT INTO " + granularity.getTable() + " (app, uri, bucket, hits) " +
+                    "VALUES (:app, :uri, :bucket, :hits) " +
+                    "ON CONFLICT (uri, bucket, app) DO UPDATE SET hits = " + granularity.getTable() + ".hits + EXCLUDED.hits",
+                    batch);
+        }
+    }
+
+    /**
+     * Сумма хитов по бакетам из полуинтервала [from, to). Границы должны быть выровнены по гранулярности.
+     */
+    public List<GetStatisticDto> findHits(RollupGranularity granularity,
+                                          LocalDateTime from,
+                                          LocalDateTime to,
+                                          List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to));
+
+        StringBuilder sql = new StringBuilder("SELECT app, uri, SUM(hits) AS hits FROM ")
+                .append(granularity.getTable())
+                .append(" WHERE bucket >= :from AND bucket < :to");
+        if (!uris.isEmpty()) {
+            sql.append(" AND uri IN (:uris)");
+            params.addValue("uris", uris);
+        }
+        sql.append(" GROUP BY app, uri");
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new GetStatisticDto(
+                rs.getString("app"),
+                rs.getString("uri"),
+                rs.getLong("hits")));
+    }
+
+    @Value
+    private static class RollupKey {
+        String app;
+        String uri;
+        LocalDateTime bucket;
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.server.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.dto.in.StatisticDto;
+import ru.practicum.server.model.RollupGranularity;
+import ru.practicum.server.model.SketchRegister;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Регистры HyperLogLog по ip для каждой пары (app, uri) в поминутных и почасовых бакетах.
+ * Регистры разных бакетов объединяются взятием максимума, поэтому sketch за любой диапазон
+ * собирается из бакетов без обращения к сырым хитам.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatisticSketchRepository {
+    private static final RowMapper<SketchRegister> REGISTER_MAPPER = (rs, rowNum) -> new SketchRegister(
+            rs.getString("app"),
+            rs.getString("uri"),
+            rs.getInt("register"),
+            rs.getInt("rank"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void addHits(List<StatisticDto> hits) {
+        String[] apps = hits.stream().map(StatisticDto::getApp).toArray(String[]::new);
+        String[] uris = hits.stream().map(StatisticDto::getUri).toArray(String[]::new);
+        String[] ips = hits.stream().map(StatisticDto::getIp).toArray(String[]::new);
+        Timestamp[] timestamps = hits.stream().map(hit -> Timestamp.valueOf(hit.getTimestamp())).toArray(Timestamp[]::new);
+
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            String table = granularity.getSketchTable();
+            // Пачка схлопывается до одного ранга на регистр, строки упорядочены как первичный ключ,
+            // чтобы параллельные пачки не блокировали друг друга
+            String sql = "INSERT INTO " + table + " (app, uri, bucket, register, rank) " +
+                    "SELECT app, uri, date_trunc('" + granularity.getTruncUnit() + "', ts), " +
+                    "stats_hll_register(ip), MAX(stats_hll_rank(ip)) " +
+                    "FROM unnest(?, ?, ?, ?) AS h(app, uri, ts, ip) " +
+                    "GROUP BY 1, 2, 3, 4 " +
+                    "ORDER BY 2, 3, 1, 4 " +
+                    "ON CONFLICT (uri, bucket, app, register) DO UPDATE SET rank = EXCLUDED.rank " +
+                    "WHERE " + table + ".rank < EXCLUDED.rank";
+
+            jdbcTemplate.getJdbcTemplate().update(sql, ps -> {
+                Connection connection = ps.getConnection();
+                ps.setArray(1, connection.createArrayOf("varchar", apps));
+                ps.setArray(2, connection.createArrayOf("varchar", uris));
+                ps.setArray(3, connection.createArrayOf("timestamp", timestamps));
+                ps.setArray(4, connection.createArrayOf("varchar", ips));
+            });
+        }
+    }
+
+    /**
+     * Объединённые регистры по бакетам из полуинтервала [from, to).
+     */
+    public List<SketchRegister> findRegisters(RollupGranularity granularity,
+                                              LocalDateTime from,
+                                              LocalDateTime to,
+                                              List<String> uris) {
+        return findRegisters(granularity.getSketchTable(), "bucket", "register", "rank", from, to, uris);
+    }
+
+    /**
+     * Регистры, посчитанные по сырым хитам из полуинтервала [from, to).
+     */
+    public List<SketchRegister> findRawRegisters(LocalDateTime from, LocalDateTime to, List<String> uris) {
+        return findRegisters("statistics", "timestamp", "stats_hll_register(ip)", "stats_hll_rank(ip)", from, to, uris);
+    }
+
+    private List<SketchRegister> findRegisters(String table,
+                                               String timeColumn,
+                                               String register,
+                                               String rank,
+                                               LocalDateTime from,
+                                               LocalDateTime to,
+                                               List<String> uris) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to));
+
+        StringBuilder sql = new StringBuilder("SELECT app, uri, ")
+                .append(register).append(" AS register, MAX(").append(rank).append(") AS rank FROM ")
+                .append(table)
+                .append(" WHERE ").append(timeColumn).append(" >= :from AND ").append(timeColumn).append(" < :to");
+        if (!uris.isEmpty()) {
+            sql.append(" AND uri IN (:uris)");
+            params.addValue("uris", uris);
+        }
+        sql.append(" GROUP BY 1, 2, 3");
+
+        return jdbcTemplate.query(sql.toString(), params, REGISTER_MAPPER);
+    }
+}
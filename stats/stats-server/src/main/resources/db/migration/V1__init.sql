@@ -0,0 +1,93 @@
+CREATE SEQUENCE IF NOT EXISTS statistics_hit_id_seq;
+
+-- Секции по дням создаёт и удаляет StatisticPartitionManager
+CREATE TABLE IF NOT EXISTS statistics
+(
+    id        BIGINT      NOT NULL DEFAULT nextval('statistics_hit_id_seq'),
+    uri       VARCHAR     NOT NULL,
+    app       VARCHAR     NOT NULL,
+    ip        VARCHAR(16) NOT NULL,
+    timestamp TIMESTAMP   NOT NULL,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE IF NOT EXISTS statistics_minute_rollup
+(
+    app    VARCHAR   NOT NULL,
+    uri    VARCHAR   NOT NULL,
+    bucket TIMESTAMP NOT NULL,
+    hits   BIGINT    NOT NULL,
+    PRIMARY KEY (uri, bucket, app)
+);
+
+CREATE INDEX IF NOT EXISTS statistics_minute_rollup_bucket_idx ON statistics_minute_rollup (bucket);
+
+CREATE TABLE IF NOT EXISTS statistics_hour_rollup
+(
+    app    VARCHAR   NOT NULL,
+    uri    VARCHAR   NOT NULL,
+    bucket TIMESTAMP NOT NULL,
+    hits   BIGINT    NOT NULL,
+    PRIMARY KEY (uri, bucket, app)
+);
+
+CREATE INDEX IF NOT EXISTS statistics_hour_rollup_bucket_idx ON statistics_hour_rollup (bucket);
+
+-- Однократное заполнение агрегатов по уже накопленным хитам
+INSERT INTO statistics_minute_rollup (app, uri, bucket, hits)
+SELECT app, uri, date_trunc('minute', timestamp), COUNT(*)
+FROM statistics
+WHERE NOT EXISTS (SELECT 1 FROM statistics_minute_rollup)
+GROUP BY app, uri, date_trunc('minute', timestamp);
+
+INSERT INTO statistics_hour_rollup (app, uri, bucket, hits)
+SELECT app, uri, date_trunc('hour', timestamp), COUNT(*)
+FROM statistics
+WHERE NOT EXISTS (SELECT 1 FROM statistics_hour_rollup)
+GROUP BY app, uri, date_trunc('hour', timestamp);
+
+-- HyperLogLog (p = 12, 4096 регистров): регистр и ранг считаются из 64-битного хэша ip
+CREATE OR REPLACE FUNCTION stats_hll_register(ip TEXT) RETURNS SMALLINT
+    LANGUAGE SQL IMMUTABLE PARALLEL SAFE
+AS 'SELECT ((hashtextextended(ip, 0) >> 52) & 4095)::SMALLINT';
+
+CREATE OR REPLACE FUNCTION stats_hll_rank(ip TEXT) RETURNS SMALLINT
+    LANGUAGE SQL IMMUTABLE PARALLEL SAFE
+AS 'SELECT (CASE WHEN x = 0 THEN 53 ELSE round(log(2, (x & -x)::NUMERIC)) + 1 END)::SMALLINT
+    FROM (SELECT hashtextextended(ip, 0) & 4503599627370495 AS x) AS h';
+
+CREATE TABLE IF NOT EXISTS statistics_minute_sketch
+(
+    app      VARCHAR   NOT NULL,
+    uri      VARCHAR   NOT NULL,
+    bucket   TIMESTAMP NOT NULL,
+    register SMALLINT  NOT NULL,
+    rank     SMALLINT  NOT NULL,
+    PRIMARY KEY (uri, bucket, app, register)
+);
+
+CREATE INDEX IF NOT EXISTS statistics_minute_sketch_bucket_idx ON statistics_minute_sketch (bucket);
+
+CREATE TABLE IF NOT EXISTS statistics_hour_sketch
+(
+    app      VARCHAR   NOT NULL,
+    uri      VARCHAR   NOT NULL,
+    bucket   TIMESTAMP NOT NULL,
+    register SMALLINT  NOT NULL,
+    rank     SMALLINT  NOT NULL,
+    PRIMARY KEY (uri, bucket, app, register)
+);
+
+CREATE INDEX IF NOT EXISTS statistics_hour_sketch_bucket_idx ON statistics_hour_sketch (bucket);
+
+INSERT INTO statistics_minute_sketch (app, uri, bucket, register, rank)
+SELECT app, uri, date_trunc('minute', timestamp), stats_hll_register(ip), MAX(stats_hll_rank(ip))
+FROM statistics
+WHERE NOT EXISTS (SELECT 1 FROM statistics_minute_sketch)
+GROUP BY app, uri, date_trunc('minute', timestamp), stats_hll_register(ip);
+
+INSERT INTO statistics_hour_sketch (app, uri, bucket, register, rank)
+SELECT app, uri, date_trunc('hour', timestamp), stats_hll_register(ip), MAX(stats_hll_rank(ip))
+FROM statistics
+WHERE NOT EXISTS (SELECT 1 FROM statistics_hour_sketch)
+GROUP BY app, uri, date_trunc('hour', timestamp), stats_hll_register(ip);
@@ -0,0 +1,38 @@
+-- Переносит хиты из обычной таблицы statistics, созданной до секционирования, в посуточные секции
+DO
+$$
+    DECLARE
+        first_day DATE;
+        last_day  DATE;
+        day       DATE;
+    BEGIN
+        IF (SELECT relkind FROM pg_class WHERE oid = 'statistics'::regclass) <> 'r' THEN
+            RETURN;
+        END IF;
+
+        ALTER TABLE statistics RENAME TO statistics_legacy;
+        CREATE TABLE statistics (LIKE statistics_legacy) PARTITION BY RANGE (timestamp);
+        ALTER TABLE statistics ALTER COLUMN id SET DEFAULT nextval('statistics_hit_id_seq');
+        ALTER TABLE statistics ADD PRIMARY KEY (id, timestamp);
+        CREATE TABLE statistics_default PARTITION OF statistics DEFAULT;
+
+        SELECT MIN(timestamp)::DATE, GREATEST(MAX(timestamp)::DATE, CURRENT_DATE)
+        INTO first_day, last_day
+        FROM statistics_legacy;
+
+        day := first_day;
+        WHILE day <= last_day
+            LOOP
+                EXECUTE format('CREATE TABLE statistics_p%s PARTITION OF statistics FOR VALUES FROM (%L) TO (%L)',
+                               to_char(day, 'YYYYMMDD'), day, day + 1);
+                day := day + 1;
+            END LOOP;
+
+        INSERT INTO statistics (id, uri, app, ip, timestamp)
+        SELECT id, uri, app, ip, timestamp
+        FROM statistics_legacy;
+
+        PERFORM setval('statistics_hit_id_seq', COALESCE((SELECT MAX(id) FROM statistics_legacy), 0) + 1, false);
+        DROP TABLE statistics_legacy;
+    END
+$$;
@@ -0,0 +1,4 @@
+-- Покрывающие индексы: запросы /stats читают только индекс без обращения к строкам секций
+CREATE INDEX IF NOT EXISTS statistics_uri_timestamp_idx ON statistics (uri, timestamp) INCLUDE (app, ip);
+
+CREATE INDEX IF NOT EXISTS statistics_timestamp_idx ON statistics (timestamp) INCLUDE (app, uri, ip);